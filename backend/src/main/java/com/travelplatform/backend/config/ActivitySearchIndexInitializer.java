@@ -0,0 +1,45 @@
+package com.travelplatform.backend.config;
+
+import com.travelplatform.backend.repository.ActivitySearchRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the generated activities.search_vector column and its GIN index on PostgreSQL.
+ * The column is not mapped on Activity, so ddl-auto leaves it alone and PostgreSQL keeps
+ * it in step with name, category and description on every write.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ActivitySearchIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivitySearchIndexInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ActivitySearchRepository activitySearchRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        if (!activitySearchRepository.isSupported()) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE activities ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                "GENERATED ALWAYS AS (" + ActivitySearchRepository.SEARCH_VECTOR_EXPRESSION + ") STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_activities_search_vector " +
+                "ON activities USING GIN (search_vector)");
+
+        logger.info("Full-text search index on activities is in place");
+    }
+}
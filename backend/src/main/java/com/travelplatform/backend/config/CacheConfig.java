@@ -0,0 +1,35 @@
+package com.travelplatform.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * One bounded Caffeine cache per @Cacheable name, each with its own size and TTL
+     * (Caffeine spec strings). Only these names exist, so a typo in an annotation fails
+     * loudly instead of silently creating an unbounded cache. Stats are recorded so
+     * actuator publishes cache.gets / cache.evictions / cache.size for every cache.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${caching.activity-by-id:maximumSize=10000,expireAfterWrite=10m}") String activityByIdSpec,
+            @Value("${caching.activity-categories:maximumSize=10,expireAfterWrite=1h}") String categoriesSpec,
+            @Value("${caching.catalog-stats:maximumSize=1000,expireAfterWrite=1m}") String catalogStatsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of()); // Static: no caches created on demand
+        cacheManager.registerCustomCache("activityById", Caffeine.from(activityByIdSpec).recordStats().build());
+        cacheManager.registerCustomCache("activityCategories", Caffeine.from(categoriesSpec).recordStats().build());
+        cacheManager.registerCustomCache("catalogStats", Caffeine.from(catalogStatsSpec).recordStats().build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,44 @@
+package com.travelplatform.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool for outbound Google Places calls. Throughput is capped by
+     * PlacesRateLimiter; the pool size only bounds how many calls wait on the network at once.
+     */
+    @Bean(name = "placesExecutor")
+    public ThreadPoolTaskExecutor placesExecutor(@Value("${google.places.concurrency:8}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("places-");
+        // If the queue ever fills, run on the submitting thread instead of dropping work
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Background refreshes for stale-while-revalidate reads. Small on purpose: each task
+     * runs a whole destination refresh, and a full queue just means the next read retries.
+     */
+    @Bean(name = "activityRefreshExecutor")
+    public ThreadPoolTaskExecutor activityRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("activity-refresh-");
+        return executor;
+    }
+}
@@ -0,0 +1,60 @@
+package com.travelplatform.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Entity ids moved from IDENTITY columns to pooled sequences (allocation size 50).
+ * On a PostgreSQL database that already holds rows, ddl-auto creates the sequences
+ * starting at 1, so move each one past the current MAX(id) before anything inserts.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdSequenceInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Matches the @SequenceGenerator allocationSize on every entity
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES_BY_TABLE = Map.of(
+            "activities", "activities_seq",
+            "destinations", "destinations_seq",
+            "trips", "trips_seq",
+            "trip_activities", "trip_activities_seq",
+            "users", "users_seq"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(database)) {
+            return;
+        }
+
+        SEQUENCES_BY_TABLE.forEach((table, sequence) -> {
+            // The pooled optimizer hands out (value - 49 .. value] for each nextval, so keep
+            // the sequence at least one allocation past the highest existing id
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST(" +
+                            "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + ", " +
+                            "(SELECT last_value FROM " + sequence + ")))",
+                    Long.class);
+            logger.debug("Sequence {} aligned to {}", sequence, value);
+        });
+        logger.info("Aligned {} id sequences with existing rows", SEQUENCES_BY_TABLE.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.travelplatform.backend.config;
+
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ensures the unique constraint on activities.place_id exists on PostgreSQL. ddl-auto
+ * cannot add it to a table that already holds duplicate places, so duplicates are merged
+ * first: trip activities are pointed at the oldest row for the place and the others are deleted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class PlaceIdConstraintInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceIdConstraintInitializer.class);
+
+    private static final String CONSTRAINT_NAME = "uk_activities_place_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(database)) {
+            return;
+        }
+
+        // Superseded by the unique constraint's own index
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_activities_place_id");
+
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT_NAME);
+        if (existing != null && existing > 0) {
+            return;
+        }
+
+        int repointed = jdbcTemplate.update(
+                "UPDATE trip_activities ta SET activity_id = d.keep_id " +
+                "FROM (SELECT id, MIN(id) OVER (PARTITION BY place_id) AS keep_id " +
+                "      FROM activities WHERE place_id IS NOT NULL) d " +
+                "WHERE ta.activity_id = d.id AND d.id <> d.keep_id");
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM activities a USING activities b " +
+                "WHERE a.place_id = b.place_id AND a.id > b.id");
+        jdbcTemplate.execute(
+                "ALTER TABLE activities ADD CONSTRAINT " + CONSTRAINT_NAME + " UNIQUE (place_id)");
+
+        logger.info("Added {} after merging {} duplicate activities ({} trip activities repointed)",
+                CONSTRAINT_NAME, deleted, repointed);
+    }
+}
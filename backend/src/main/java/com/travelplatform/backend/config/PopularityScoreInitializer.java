@@ -0,0 +1,34 @@
+package com.travelplatform.backend.config;
+
+import com.travelplatform.backend.repository.ActivityRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * New and updated activities get popularity_score from the entity callbacks and the native
+ * upsert. Rows written before the column existed are scored once here, before any feed reads them.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class PopularityScoreInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityScoreInitializer.class);
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        int scored = activityRepository.backfillPopularityScores();
+        if (scored > 0) {
+            logger.info("Computed popularity scores for {} existing activities", scored);
+        }
+    }
+}
@@ -63,6 +63,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/trip-activities/**").permitAll()
                         .requestMatchers("/api/trips/**").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        // Metrics include outbound pool and refresh counters; not for ordinary users
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -1,21 +1,30 @@
 package com.travelplatform.backend.controller;
 
+import com.travelplatform.backend.dto.ActivityPageResponse;
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.CostHistogram;
+import com.travelplatform.backend.dto.NearbyActivity;
 import com.travelplatform.backend.entity.Activity;
 import com.travelplatform.backend.exception.ActivityMissingPlaceIdException;
 import com.travelplatform.backend.exception.GooglePlacesApiException;
+import com.travelplatform.backend.service.ActivityCatalogSnapshot;
 import com.travelplatform.backend.service.ActivityService;
 import com.travelplatform.backend.service.GooglePlacesService;
+import com.travelplatform.backend.service.PhotoCacheService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/activities")
@@ -29,29 +38,59 @@ public class ActivityController {
     @Autowired
     private GooglePlacesService googlePlacesService;
 
+    @Autowired
+    private PhotoCacheService photoCacheService;
+
     // Main endpoint - returns ALL activities for frontend pagination
     @GetMapping("/destination/{destinationId}")
-    public ResponseEntity<Map<String, Object>> getActivitiesByDestination(@PathVariable Long destinationId) {
-        List<Activity> allActivities = activityService.getAllActivitiesByDestination(destinationId);
+    public ResponseEntity<Map<String, Object>> getActivitiesByDestination(
+            @PathVariable Long destinationId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String sort) {
+        List<ActivitySummary> allActivities = activityService.getAllActivitiesByDestination(
+                destinationId, category, ActivityCatalogSnapshot.SortOrder.fromParam(sort));
         ActivityService.CacheStats stats = activityService.getCacheStats(destinationId);
 
         return ResponseEntity.ok(Map.of(
                 "activities", allActivities,
                 "count", allActivities.size(),
-                "source", stats.isCacheStale() ? "google_places_auto_refreshed" : "database_cached"
+                "source", resolveSource(destinationId, stats)
         ));
     }
 
+    // Popularity feed, one page at a time; pass nextCursor back to get the following page
+    @GetMapping("/destination/{destinationId}/feed")
+    public ResponseEntity<ActivityPageResponse> getActivityFeed(
+            @PathVariable Long destinationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ActivityPageResponse page = activityService.getPopularityFeed(destinationId, cursor, size);
+        ActivityService.CacheStats stats = activityService.getCacheStats(destinationId);
+        page.setTotalCount(stats.getTotalActivities());
+        page.setSource(resolveSource(destinationId, stats));
+        return ResponseEntity.ok(page);
+    }
+
+    // Ranked search by name, category and description; words match as prefixes on PostgreSQL
+    @GetMapping("/destination/{destinationId}/search")
+    public ResponseEntity<ActivityPageResponse> searchActivities(
+            @PathVariable Long destinationId,
+            @RequestParam String query,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(activityService.searchActivities(destinationId, query, page, size));
+    }
+
     // Smart endpoint with cache stats
     @GetMapping("/destination/{destinationId}/smart")
     public ResponseEntity<Map<String, Object>> getActivitiesWithSmartCaching(@PathVariable Long destinationId) {
-        List<Activity> allActivities = activityService.getAllActivitiesByDestination(destinationId);
+        List<ActivitySummary> allActivities = activityService.getAllActivitiesByDestination(destinationId);
         ActivityService.CacheStats stats = activityService.getCacheStats(destinationId);
 
         return ResponseEntity.ok(Map.of(
                 "activities", allActivities,
                 "count", allActivities.size(),
-                "source", stats.isCacheStale() ? "google_places_auto_refreshed" : "database_cached",
+                "source", resolveSource(destinationId, stats),
                 "cacheStats", Map.of(
                         "totalActivities", stats.getTotalActivities(),
                         "lastRefresh", stats.getLastRefresh(),
@@ -61,6 +100,17 @@ public class ActivityController {
         ));
     }
 
+    // Activities around a point (map view, "near my next activity"), nearest first with distances
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyActivity>> getNearbyActivities(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "1000") double radiusMeters,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(activityService.getNearbyActivities(lat, lng, radiusMeters, category, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Activity> getActivityById(@PathVariable Long id) {
         Optional<Activity> activityOpt = activityService.getActivityById(id);
@@ -87,20 +137,28 @@ public class ActivityController {
     }
 
     @GetMapping("/destination/{destinationId}/top-rated")
-    public ResponseEntity<List<Activity>> getTopRatedActivities(@PathVariable Long destinationId) {
-        List<Activity> activities = activityService.getTopRatedActivities(destinationId);
+    public ResponseEntity<List<ActivitySummary>> getTopRatedActivities(
+            @PathVariable Long destinationId,
+            @RequestParam(defaultValue = "0") int minReviews,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ActivitySummary> activities = activityService.getTopRatedActivities(destinationId, minReviews, limit);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/destination/{destinationId}/cost-range")
-    public ResponseEntity<List<Activity>> getActivitiesByCostRange(
+    public ResponseEntity<List<ActivitySummary>> getActivitiesByCostRange(
             @PathVariable Long destinationId,
-            @RequestParam(required = false) Integer minCost,
-            @RequestParam(required = false) Integer maxCost) {
-        List<Activity> activities = activityService.getActivitiesByCostRange(destinationId, minCost, maxCost);
+            @RequestParam(required = false) Double minCost,
+            @RequestParam(required = false) Double maxCost) {
+        List<ActivitySummary> activities = activityService.getActivitiesByCostRange(destinationId, minCost, maxCost);
         return ResponseEntity.ok(activities);
     }
 
+    @GetMapping("/destination/{destinationId}/cost-histogram")
+    public ResponseEntity<CostHistogram> getCostHistogram(@PathVariable Long destinationId) {
+        return ResponseEntity.ok(activityService.getCostHistogram(destinationId));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Activity> updateActivity(
             @PathVariable Long id,
@@ -136,7 +194,7 @@ public class ActivityController {
 
         // Check if we already have cached activities and don't need to refresh
         if (!forceRefresh) {
-            List<Activity> cachedActivities = activityService.getAllActivitiesByDestination(destinationId);
+            List<ActivitySummary> cachedActivities = activityService.getAllActivitiesByDestination(destinationId);
             if (!cachedActivities.isEmpty()) {
                 logger.info("Returning {} cached activities for destination: {}", cachedActivities.size(), destinationId);
                 return ResponseEntity.ok(Map.of(
@@ -148,14 +206,14 @@ public class ActivityController {
         }
 
         // Fetch from Google Places API
-        List<Activity> activities = googlePlacesService.searchActivitiesForDestination(destinationId, type);
+        List<Activity> activities = googlePlacesService.searchActivitiesForDestination(destinationId, type, forceRefresh);
 
         // Save new activities to database (avoid duplicates by placeId)
         List<Activity> savedActivities = activityService.saveActivitiesFromPlaces(activities, destinationId);
 
         logger.info("Found and saved {} activities for destination: {}", savedActivities.size(), destinationId);
         return ResponseEntity.ok(Map.of(
-                "activities", savedActivities,
+                "activities", toSummaries(savedActivities),
                 "source", "google_places",
                 "count", savedActivities.size()
         ));
@@ -179,7 +237,8 @@ public class ActivityController {
             throw new ActivityMissingPlaceIdException("Activity has no Google Places ID");
         }
 
-        Activity enhancedActivity = googlePlacesService.getPlaceDetails(activity.getPlaceId());
+        // An explicit refresh must reach Google, not the Places response cache
+        Activity enhancedActivity = googlePlacesService.getPlaceDetails(activity.getPlaceId(), true);
         if (enhancedActivity != null) {
             activity = activityService.enhanceActivityWithPlacesData(activity, enhancedActivity);
             return ResponseEntity.ok(activity);
@@ -201,7 +260,7 @@ public class ActivityController {
     public ResponseEntity<Map<String, Object>> forceRefreshActivities(@PathVariable Long destinationId) {
         List<Activity> activities = activityService.forceRefreshActivities(destinationId);
         return ResponseEntity.ok(Map.of(
-                "activities", activities,
+                "activities", toSummaries(activities),
                 "count", activities.size(),
                 "source", "google_places_refreshed",
                 "message", "Cache cleared and refreshed from Google Places API"
@@ -214,6 +273,19 @@ public class ActivityController {
         return ResponseEntity.ok(stats);
     }
 
+    private String resolveSource(Long destinationId, ActivityService.CacheStats stats) {
+        if (!stats.isCacheStale()) {
+            return "database_cached";
+        }
+        // Only claim revalidation when a refresh is really queued or running; a rejected or failed one serves stale data as-is
+        return activityService.isRevalidating(destinationId) ? "stale_revalidating" : "database_stale";
+    }
+
+    // List responses carry card fields only; the full activity comes from GET /{id}
+    private List<ActivitySummary> toSummaries(List<Activity> activities) {
+        return activities.stream().map(ActivitySummary::from).toList();
+    }
+
     private boolean shouldEnhanceActivity(Activity activity) {
         return activity.getPhotoUrl() == null ||
                 activity.getRating() == null ||
@@ -222,15 +294,24 @@ public class ActivityController {
     }
 
     @GetMapping("/photo/{photoReference}")
-    public ResponseEntity<byte[]> getPhoto(@PathVariable String photoReference) {
+    public ResponseEntity<StreamingResponseBody> getPhoto(@PathVariable String photoReference,
+                                                          @RequestParam(name = "w", defaultValue = "400") int width,
+                                                          WebRequest webRequest) {
+        // Photo references are immutable, so a matching If-None-Match is answered without touching the cache
+        String etag = photoCacheService.etagFor(photoReference, width);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         try {
-            String photoUrl = googlePlacesService.buildPhotoUrl(photoReference);
-            RestTemplate restTemplate = new RestTemplate();
-            byte[] imageBytes = restTemplate.getForObject(photoUrl, byte[].class);
+            PhotoCacheService.CachedPhoto photo = photoCacheService.getPhoto(photoReference, width);
 
             return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_JPEG)
-                    .body(imageBytes);
+                    .contentLength(photo.getLength())
+                    .eTag(etag)
+                    .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic())
+                    .body(photo::writeTo);
         } catch (Exception e) {
             logger.warn("Failed to fetch photo for reference: {}", photoReference, e);
             return ResponseEntity.notFound().build();
@@ -0,0 +1,42 @@
+package com.travelplatform.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a popularity feed: the (popularityScore, id) of the last activity returned.
+ * Sent to clients as an opaque URL-safe string.
+ */
+public class ActivityFeedCursor {
+    private final double popularityScore;
+    private final long id;
+
+    public ActivityFeedCursor(double popularityScore, long id) {
+        this.popularityScore = popularityScore;
+        this.id = id;
+    }
+
+    public String encode() {
+        // Double.toString round-trips exactly, so the next page resumes precisely after this row
+        String raw = popularityScore + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ActivityFeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            double popularityScore = Double.parseDouble(raw.substring(0, separator));
+            // parseDouble accepts "NaN" and "Infinity", which no row could ever follow
+            if (!Double.isFinite(popularityScore)) {
+                throw new IllegalArgumentException("Non-finite popularity score");
+            }
+            return new ActivityFeedCursor(popularityScore, Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public double getPopularityScore() { return popularityScore; }
+    public long getId() { return id; }
+}
@@ -6,7 +6,7 @@ import org.springframework.data.domain.Page;
 import java.util.List;
 
 public class ActivityPageResponse {
-    private List<Activity> activities;
+    private List<ActivitySummary> activities;
     private boolean hasMore;
     private long totalCount;
     private int currentPage;
@@ -14,12 +14,13 @@ public class ActivityPageResponse {
     private String source;
     private String query;
     private String category;
+    private String nextCursor; // Keyset feeds only; null on the last page
 
     public ActivityPageResponse() {}
 
     public static ActivityPageResponse fromPage(Page<Activity> page, String source) {
         ActivityPageResponse response = new ActivityPageResponse();
-        response.activities = page.getContent();
+        response.activities = page.getContent().stream().map(ActivitySummary::from).toList();
         response.hasMore = page.hasNext();
         response.totalCount = page.getTotalElements();
         response.currentPage = page.getNumber() + 1; // Convert 0-based to 1-based
@@ -28,8 +29,17 @@ public class ActivityPageResponse {
         return response;
     }
 
-    public List<Activity> getActivities() { return activities; }
-    public void setActivities(List<Activity> activities) { this.activities = activities; }
+    public static ActivityPageResponse fromKeyset(List<ActivitySummary> activities, boolean hasMore, String nextCursor, int pageSize) {
+        ActivityPageResponse response = new ActivityPageResponse();
+        response.activities = activities;
+        response.hasMore = hasMore;
+        response.nextCursor = nextCursor;
+        response.pageSize = pageSize;
+        return response;
+    }
+
+    public List<ActivitySummary> getActivities() { return activities; }
+    public void setActivities(List<ActivitySummary> activities) { this.activities = activities; }
 
     public boolean isHasMore() { return hasMore; }
     public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
@@ -51,4 +61,7 @@ public class ActivityPageResponse {
 
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
-}
\ No newline at end of file
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
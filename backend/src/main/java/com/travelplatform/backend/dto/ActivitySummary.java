@@ -0,0 +1,118 @@
+package com.travelplatform.backend.dto;
+
+import com.travelplatform.backend.entity.Activity;
+
+import java.math.BigDecimal;
+
+/**
+ * Card-sized view of an activity for list endpoints. Leaves out reviews, opening hours,
+ * website and phone, and carries only the start of the description; GET /api/activities/{id}
+ * returns the full activity.
+ */
+public class ActivitySummary {
+
+    // Keep in sync with the SUBSTRING length in the ActivityRepository summary queries
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 300;
+
+    private Long id;
+    private String placeId;
+    private String name;
+    private String category;
+    private String description;
+    private BigDecimal rating;
+    private Integer userRatingsTotal;
+    private Integer priceLevel;
+    private String photoUrl;
+    private Integer durationMinutes;
+    private Double estimatedCost;
+    private Boolean isCustom;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private String address;
+    private Double popularityScore;
+
+    public ActivitySummary() {}
+
+    // Constructor expression target for JPQL "SELECT new ..." queries
+    public ActivitySummary(Long id, String placeId, String name, String category, String description,
+                           BigDecimal rating, Integer userRatingsTotal, Integer priceLevel, String photoUrl,
+                           Integer durationMinutes, Double estimatedCost, Boolean isCustom,
+                           BigDecimal latitude, BigDecimal longitude, String address, Double popularityScore) {
+        this.id = id;
+        this.placeId = placeId;
+        this.name = name;
+        this.category = category;
+        this.description = description;
+        this.rating = rating;
+        this.userRatingsTotal = userRatingsTotal;
+        this.priceLevel = priceLevel;
+        this.photoUrl = photoUrl;
+        this.durationMinutes = durationMinutes;
+        this.estimatedCost = estimatedCost;
+        this.isCustom = isCustom;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.address = address;
+        this.popularityScore = popularityScore;
+    }
+
+    public static ActivitySummary from(Activity activity) {
+        String description = activity.getDescription();
+        if (description != null && description.length() > DESCRIPTION_PREVIEW_LENGTH) {
+            description = description.substring(0, DESCRIPTION_PREVIEW_LENGTH);
+        }
+        return new ActivitySummary(activity.getId(), activity.getPlaceId(), activity.getName(), activity.getCategory(),
+                description, activity.getRating(), activity.getUserRatingsTotal(), activity.getPriceLevel(),
+                activity.getPhotoUrl(), activity.getDurationMinutes(), activity.getEstimatedCost(),
+                activity.getIsCustom(), activity.getLatitude(), activity.getLongitude(), activity.getAddress(),
+                activity.getPopularityScore());
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getPlaceId() { return placeId; }
+    public void setPlaceId(String placeId) { this.placeId = placeId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public BigDecimal getRating() { return rating; }
+    public void setRating(BigDecimal rating) { this.rating = rating; }
+
+    public Integer getUserRatingsTotal() { return userRatingsTotal; }
+    public void setUserRatingsTotal(Integer userRatingsTotal) { this.userRatingsTotal = userRatingsTotal; }
+
+    public Integer getPriceLevel() { return priceLevel; }
+    public void setPriceLevel(Integer priceLevel) { this.priceLevel = priceLevel; }
+
+    public String getPhotoUrl() { return photoUrl; }
+    public void setPhotoUrl(String photoUrl) { this.photoUrl = photoUrl; }
+
+    public Integer getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(Integer durationMinutes) { this.durationMinutes = durationMinutes; }
+
+    public Double getEstimatedCost() { return estimatedCost; }
+    public void setEstimatedCost(Double estimatedCost) { this.estimatedCost = estimatedCost; }
+
+    public Boolean getIsCustom() { return isCustom; }
+    public void setIsCustom(Boolean isCustom) { this.isCustom = isCustom; }
+
+    public BigDecimal getLatitude() { return latitude; }
+    public void setLatitude(BigDecimal latitude) { this.latitude = latitude; }
+
+    public BigDecimal getLongitude() { return longitude; }
+    public void setLongitude(BigDecimal longitude) { this.longitude = longitude; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public Double getPopularityScore() { return popularityScore; }
+    public void setPopularityScore(Double popularityScore) { this.popularityScore = popularityScore; }
+}
@@ -0,0 +1,89 @@
+package com.travelplatform.backend.dto;
+
+import java.util.List;
+
+/**
+ * Distribution of estimated costs for one destination, for drawing the cost-range slider.
+ * Bounds and percentiles are null when no activity has a cost.
+ */
+public class CostHistogram {
+    private int pricedCount;
+    private int unpricedCount;
+    private Double min;
+    private Double max;
+    private Double p10;
+    private Double p25;
+    private Double median;
+    private Double p75;
+    private Double p90;
+    private List<Bucket> buckets;
+
+    public CostHistogram() {}
+
+    public CostHistogram(int pricedCount, int unpricedCount, Double min, Double max,
+                         Double p10, Double p25, Double median, Double p75, Double p90, List<Bucket> buckets) {
+        this.pricedCount = pricedCount;
+        this.unpricedCount = unpricedCount;
+        this.min = min;
+        this.max = max;
+        this.p10 = p10;
+        this.p25 = p25;
+        this.median = median;
+        this.p75 = p75;
+        this.p90 = p90;
+        this.buckets = buckets;
+    }
+
+    public int getPricedCount() { return pricedCount; }
+    public void setPricedCount(int pricedCount) { this.pricedCount = pricedCount; }
+
+    public int getUnpricedCount() { return unpricedCount; }
+    public void setUnpricedCount(int unpricedCount) { this.unpricedCount = unpricedCount; }
+
+    public Double getMin() { return min; }
+    public void setMin(Double min) { this.min = min; }
+
+    public Double getMax() { return max; }
+    public void setMax(Double max) { this.max = max; }
+
+    public Double getP10() { return p10; }
+    public void setP10(Double p10) { this.p10 = p10; }
+
+    public Double getP25() { return p25; }
+    public void setP25(Double p25) { this.p25 = p25; }
+
+    public Double getMedian() { return median; }
+    public void setMedian(Double median) { this.median = median; }
+
+    public Double getP75() { return p75; }
+    public void setP75(Double p75) { this.p75 = p75; }
+
+    public Double getP90() { return p90; }
+    public void setP90(Double p90) { this.p90 = p90; }
+
+    public List<Bucket> getBuckets() { return buckets; }
+    public void setBuckets(List<Bucket> buckets) { this.buckets = buckets; }
+
+    public static class Bucket {
+        private double lowerBound; // Inclusive
+        private double upperBound; // Exclusive, except for the last bucket
+        private int count;
+
+        public Bucket() {}
+
+        public Bucket(double lowerBound, double upperBound, int count) {
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+            this.count = count;
+        }
+
+        public double getLowerBound() { return lowerBound; }
+        public void setLowerBound(double lowerBound) { this.lowerBound = lowerBound; }
+
+        public double getUpperBound() { return upperBound; }
+        public void setUpperBound(double upperBound) { this.upperBound = upperBound; }
+
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+    }
+}
@@ -0,0 +1,19 @@
+package com.travelplatform.backend.dto;
+
+public class NearbyActivity {
+    private ActivitySummary activity;
+    private double distanceMeters;
+
+    public NearbyActivity() {}
+
+    public NearbyActivity(ActivitySummary activity, double distanceMeters) {
+        this.activity = activity;
+        this.distanceMeters = distanceMeters;
+    }
+
+    public ActivitySummary getActivity() { return activity; }
+    public void setActivity(ActivitySummary activity) { this.activity = activity; }
+
+    public double getDistanceMeters() { return distanceMeters; }
+    public void setDistanceMeters(double distanceMeters) { this.distanceMeters = distanceMeters; }
+}
@@ -1,6 +1,7 @@
 package com.travelplatform.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.travelplatform.backend.util.ActivityPopularityUtils;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,14 +15,21 @@ import java.util.List;
 @Entity
 @Table(name = "activities", indexes = {
         @Index(name = "idx_activities_destination_id", columnList = "destination_id"),
-        @Index(name = "idx_activities_place_id", columnList = "place_id"),
         @Index(name = "idx_activities_category", columnList = "category"),
-        @Index(name = "idx_activities_custom", columnList = "is_custom")
+        @Index(name = "idx_activities_custom", columnList = "is_custom"),
+        // Popularity feeds and top-N reads are range scans on these instead of sorting the destination
+        @Index(name = "idx_activities_dest_popularity", columnList = "destination_id, popularity_score DESC, id"),
+        @Index(name = "idx_activities_dest_category_popularity",
+                columnList = "destination_id, category, popularity_score DESC, id")
+}, uniqueConstraints = {
+        // Also the ON CONFLICT target for Places ingestion; custom activities have a null place_id
+        @UniqueConstraint(name = "uk_activities_place_id", columnNames = "place_id")
 })
 public class Activity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -100,6 +108,15 @@ public class Activity {
     @Column(name = "reviews_json", columnDefinition = "TEXT")
     private String reviewsJson;
 
+    @Column(name = "details_fetched_at")
+    private LocalDateTime detailsFetchedAt; // Last successful Place Details call, null if never enriched
+
+    @Column(name = "popularity_score")
+    private Double popularityScore; // Derived from rating and userRatingsTotal on every write
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the last Places data written to this row
+
     public Activity() {}
 
     public Activity(String name, String category, Destination destination) {
@@ -128,11 +145,13 @@ public class Activity {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        popularityScore = ActivityPopularityUtils.score(rating, userRatingsTotal);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        popularityScore = ActivityPopularityUtils.score(rating, userRatingsTotal);
     }
 
     public Long getId() { return id; }
@@ -216,4 +235,13 @@ public class Activity {
 
     public String getReviewsJson() { return reviewsJson; }
     public void setReviewsJson(String reviewsJson) { this.reviewsJson = reviewsJson; }
+
+    public LocalDateTime getDetailsFetchedAt() { return detailsFetchedAt; }
+    public void setDetailsFetchedAt(LocalDateTime detailsFetchedAt) { this.detailsFetchedAt = detailsFetchedAt; }
+
+    public Double getPopularityScore() { return popularityScore; }
+    public void setPopularityScore(Double popularityScore) { this.popularityScore = popularityScore; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 }
\ No newline at end of file
@@ -15,7 +15,8 @@ import java.util.List;
 })
 public class Destination {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "destinations_seq")
+    @SequenceGenerator(name = "destinations_seq", sequenceName = "destinations_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
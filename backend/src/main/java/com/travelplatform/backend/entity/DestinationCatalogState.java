@@ -0,0 +1,86 @@
+package com.travelplatform.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-destination bookkeeping for the Places catalog, kept up to date by the ingestion
+ * path so freshness checks are a primary-key lookup instead of a scan of the activities.
+ */
+@Entity
+@Table(name = "destination_catalog_states")
+public class DestinationCatalogState {
+
+    @Id
+    @Column(name = "destination_id")
+    private Long destinationId;
+
+    @Column(name = "last_refreshed_at")
+    private LocalDateTime lastRefreshedAt; // Last successful Places refresh, null if never
+
+    @Column(name = "activity_count", nullable = false)
+    private long activityCount; // As of the last refresh or edit
+
+    @Column(name = "custom_activity_count", nullable = false)
+    private long customActivityCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "refresh_status", length = 20, nullable = false)
+    private RefreshStatus refreshStatus = RefreshStatus.NEVER;
+
+    @Column(name = "catalog_version", nullable = false)
+    private long catalogVersion; // Bumped on every successful refresh
+
+    @Column(name = "last_failed_at")
+    private LocalDateTime lastFailedAt; // Last failed Places refresh, null if never
+
+    @Column(name = "consecutive_failures", nullable = false, columnDefinition = "integer default 0")
+    private int consecutiveFailures; // Reset by a successful refresh
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum RefreshStatus {
+        NEVER, REFRESHING, SUCCEEDED, FAILED
+    }
+
+    public DestinationCatalogState() {}
+
+    public DestinationCatalogState(Long destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getDestinationId() { return destinationId; }
+    public void setDestinationId(Long destinationId) { this.destinationId = destinationId; }
+
+    public LocalDateTime getLastRefreshedAt() { return lastRefreshedAt; }
+    public void setLastRefreshedAt(LocalDateTime lastRefreshedAt) { this.lastRefreshedAt = lastRefreshedAt; }
+
+    public long getActivityCount() { return activityCount; }
+    public void setActivityCount(long activityCount) { this.activityCount = activityCount; }
+
+    public long getCustomActivityCount() { return customActivityCount; }
+    public void setCustomActivityCount(long customActivityCount) { this.customActivityCount = customActivityCount; }
+
+    public RefreshStatus getRefreshStatus() { return refreshStatus; }
+    public void setRefreshStatus(RefreshStatus refreshStatus) { this.refreshStatus = refreshStatus; }
+
+    public long getCatalogVersion() { return catalogVersion; }
+    public void setCatalogVersion(long catalogVersion) { this.catalogVersion = catalogVersion; }
+
+    public LocalDateTime getLastFailedAt() { return lastFailedAt; }
+    public void setLastFailedAt(LocalDateTime lastFailedAt) { this.lastFailedAt = lastFailedAt; }
+
+    public int getConsecutiveFailures() { return consecutiveFailures; }
+    public void setConsecutiveFailures(int consecutiveFailures) { this.consecutiveFailures = consecutiveFailures; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,6 +1,7 @@
 package com.travelplatform.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
@@ -18,7 +19,8 @@ import java.time.*;
 public class TripActivity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_activities_seq")
+    @SequenceGenerator(name = "trip_activities_seq", sequenceName = "trip_activities_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,6 +30,7 @@ public class TripActivity {
 
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "activity_id", nullable = true)
+    @JsonIgnoreProperties({"reviewsJson", "website", "phone", "contentHash"}) // Timeline still needs openingHours
     private Activity activity;
 
     @Column(name = "timezone")
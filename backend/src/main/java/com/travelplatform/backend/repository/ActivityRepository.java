@@ -1,55 +1,93 @@
 package com.travelplatform.backend.repository;
 
+import com.travelplatform.backend.dto.ActivitySummary;
 import com.travelplatform.backend.entity.Activity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
 
+    // Card columns only for list endpoints: reviews_json, opening_hours, website and phone stay in the
+    // table and the description is cut to a preview (ActivitySummary.DESCRIPTION_PREVIEW_LENGTH)
+    String SUMMARY = "new com.travelplatform.backend.dto.ActivitySummary(" +
+            "a.id, a.placeId, a.name, a.category, SUBSTRING(a.description, 1, 300), a.rating, " +
+            "a.userRatingsTotal, a.priceLevel, a.photoUrl, a.durationMinutes, a.estimatedCost, a.isCustom, " +
+            "a.latitude, a.longitude, a.address, a.popularityScore)";
+    String SUMMARY_SELECT = "SELECT " + SUMMARY + " FROM Activity a ";
+
     List<Activity> findByDestinationId(Long destinationId);
 
+    @Query(SUMMARY_SELECT + "WHERE a.destination.id = :destinationId")
+    List<ActivitySummary> findSummariesByDestinationId(@Param("destinationId") Long destinationId);
+
+    // Each row is [destinationId, ActivitySummary], so several snapshots are built from one query
+    @Query("SELECT a.destination.id, " + SUMMARY + " FROM Activity a WHERE a.destination.id IN :destinationIds")
+    List<Object[]> findSummariesByDestinationIdIn(@Param("destinationIds") Collection<Long> destinationIds);
+
+    @Query("SELECT DISTINCT a.destination.id FROM Activity a WHERE a.latitude IS NOT NULL AND a.longitude IS NOT NULL")
+    List<Long> findDestinationIdsWithCoordinates();
+
     List<Activity> findByDestinationIdAndCategory(Long destinationId, String category);
 
     Optional<Activity> findByPlaceId(String placeId);
 
     boolean existsByPlaceId(String placeId);
 
-    List<Activity> findByDestinationIdAndIsCustomTrue(Long destinationId);
+    List<Activity> findByPlaceIdIn(Collection<String> placeIds);
 
-    List<Activity> findByDestinationIdAndIsCustomFalse(Long destinationId);
+    @Query("SELECT a.placeId FROM Activity a WHERE a.placeId IN :placeIds")
+    List<String> findExistingPlaceIds(@Param("placeIds") Collection<String> placeIds);
 
-    @Query("SELECT a FROM Activity a WHERE a.destination.id = :destinationId AND a.rating IS NOT NULL ORDER BY a.rating DESC")
-    List<Activity> findTopRatedByDestination(@Param("destinationId") Long destinationId);
+    List<Activity> findByDestinationIdAndIsCustomTrue(Long destinationId);
 
-    // Find activities within price range
-    @Query("SELECT a FROM Activity a WHERE a.destination.id = :destinationId AND " +
-            "(:minCost IS NULL OR a.estimatedCost >= :minCost) AND " +
-            "(:maxCost IS NULL OR a.estimatedCost <= :maxCost)")
-    List<Activity> findByDestinationAndCostRange(
-            @Param("destinationId") Long destinationId,
-            @Param("minCost") Integer minCost,
-            @Param("maxCost") Integer maxCost
-    );
+    List<Activity> findByDestinationIdAndIsCustomFalse(Long destinationId);
 
-    // Search activities by name or description
-    @Query("SELECT a FROM Activity a WHERE a.destination.id = :destinationId AND " +
+    // Substring search for databases without full-text support (H2 in tests); PostgreSQL uses ActivitySearchRepository
+    @Query(SUMMARY_SELECT + "WHERE a.destination.id = :destinationId AND " +
             "(LOWER(a.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(a.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Activity> searchByDestinationAndTerm(
+            "LOWER(a.category) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(a.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "ORDER BY a.popularityScore DESC, a.id ASC")
+    Slice<ActivitySummary> searchByDestinationAndTerm(
             @Param("destinationId") Long destinationId,
-            @Param("searchTerm") String searchTerm
+            @Param("searchTerm") String searchTerm,
+            Pageable pageable
     );
 
+    @Query("SELECT a.destination.id FROM Activity a WHERE a.id = :id")
+    Optional<Long> findDestinationIdById(@Param("id") Long id);
+
     long countByDestinationId(Long destinationId);
 
+    long countByDestinationIdAndIsCustomTrue(Long destinationId);
+
+    // One row per is_custom value with how many activities it has
+    @Query("SELECT a.isCustom AS custom, COUNT(a) AS activityCount " +
+            "FROM Activity a WHERE a.destination.id = :destinationId GROUP BY a.isCustom")
+    List<CatalogAggregate> aggregateByCustomFlag(@Param("destinationId") Long destinationId);
+
+    interface CatalogAggregate {
+        Boolean getCustom();
+        long getActivityCount();
+    }
+
+    @Query("SELECT MAX(a.updatedAt) FROM Activity a WHERE a.destination.id = :destinationId")
+    LocalDateTime findLatestUpdatedAt(@Param("destinationId") Long destinationId);
+
     // Find activities by city
     @Query("SELECT a FROM Activity a WHERE LOWER(a.destination.name) = LOWER(:cityName)")
     List<Activity> findByCityNameIgnoreCase(@Param("cityName") String cityName);
@@ -60,41 +98,64 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
 
     Optional<Activity> findByDestinationIdAndNameIgnoreCase(Long destinationId, String name);
 
-    @Query("SELECT a FROM Activity a WHERE a.destination.id = :destinationId " +
-            "ORDER BY " +
+    // Everything a Places import could match: same placeId anywhere, or same name (lowercased) in the destination
+    @Query("SELECT a FROM Activity a WHERE a.placeId IN :placeIds " +
+            "OR (a.destination.id = :destinationId AND LOWER(a.name) IN :names)")
+    List<Activity> findExistingForUpsert(
+            @Param("destinationId") Long destinationId,
+            @Param("placeIds") Collection<String> placeIds,
+            @Param("names") Collection<String> lowerCaseNames);
+
+    // Freshness bumps for refreshed rows whose Places content hash is unchanged; no other column is rewritten.
+    // Transactional themselves because the refresh reaches them without going through the service proxy.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Activity a SET a.updatedAt = :now WHERE a.id IN :ids")
+    int touchUpdatedAt(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Activity a SET a.updatedAt = :now, a.detailsFetchedAt = :detailsFetchedAt WHERE a.id IN :ids")
+    int touchDetailsFetchedAt(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+                              @Param("detailsFetchedAt") LocalDateTime detailsFetchedAt);
+
+    // Keyset feed by (popularityScore DESC, id ASC). The <= bound lets the database seek straight to
+    // the cursor; the OR only decides ties on the cursor's own score.
+    @Query(SUMMARY_SELECT + "WHERE a.destination.id = :destinationId " +
+            "ORDER BY a.popularityScore DESC, a.id ASC")
+    List<ActivitySummary> findPopularityFeed(@Param("destinationId") Long destinationId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE a.destination.id = :destinationId " +
+            "AND a.popularityScore <= :score AND (a.popularityScore < :score OR a.id > :id) " +
+            "ORDER BY a.popularityScore DESC, a.id ASC")
+    List<ActivitySummary> findPopularityFeedAfter(
+            @Param("destinationId") Long destinationId,
+            @Param("score") double score,
+            @Param("id") long id,
+            Limit limit);
+
+    // Fills popularity_score for rows written before it existed; same formula as ActivityPopularityUtils
+    @Modifying
+    @Query("UPDATE Activity a SET a.popularityScore = " +
             "(CASE " +
             "  WHEN a.rating IS NOT NULL AND a.userRatingsTotal > 100 THEN a.rating * LOG10(a.userRatingsTotal) * 10 " +
             "  WHEN a.rating IS NOT NULL AND a.userRatingsTotal > 10 THEN a.rating * LOG10(a.userRatingsTotal) * 5 " +
             "  WHEN a.rating IS NOT NULL THEN a.rating * 2 " +
-            "  ELSE 0 " +
-            "END) DESC, " +
-            "a.name ASC")
+            "  ELSE 0.0 " +
+            "END) WHERE a.popularityScore IS NULL")
+    int backfillPopularityScores();
+
+    @Query("SELECT a FROM Activity a WHERE a.destination.id = :destinationId " +
+            "ORDER BY a.popularityScore DESC, a.id ASC")
     Page<Activity> findByDestinationIdOrderByPopularity(
             @Param("destinationId") Long destinationId,
             Pageable pageable);
 
     @Query("SELECT a FROM Activity a WHERE a.destination.id = :destinationId " +
             "AND a.category = :category " +
-            "ORDER BY " +
-            "(CASE " +
-            "  WHEN a.rating IS NOT NULL AND a.userRatingsTotal > 100 THEN a.rating * LOG10(a.userRatingsTotal) * 10 " +
-            "  WHEN a.rating IS NOT NULL AND a.userRatingsTotal > 10 THEN a.rating * LOG10(a.userRatingsTotal) * 5 " +
-            "  WHEN a.rating IS NOT NULL THEN a.rating * 2 " +
-            "  ELSE 0 " +
-            "END) DESC, " +
-            "a.name ASC")
+            "ORDER BY a.popularityScore DESC, a.id ASC")
     Page<Activity> findByDestinationIdAndCategoryOrderByPopularity(
             @Param("destinationId") Long destinationId,
             @Param("category") String category,
             Pageable pageable);
-
-    @Query("SELECT a FROM Activity a WHERE a.destination.id = :destinationId " +
-            "AND (LOWER(a.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-            "OR LOWER(a.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-            "ORDER BY " +
-            "CASE WHEN a.rating IS NOT NULL THEN a.rating ELSE 0 END DESC")
-    Page<Activity> searchByDestinationAndTermPaginated(
-            @Param("destinationId") Long destinationId,
-            @Param("searchTerm") String searchTerm,
-            Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.travelplatform.backend.repository;
+
+import com.travelplatform.backend.dto.ActivitySummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked full-text search over activities on PostgreSQL. Matches against the generated
+ * search_vector column (GIN-indexed, see ActivitySearchIndexInitializer) with prefix terms,
+ * and orders by ts_rank boosted by popularity. Other databases (H2 in tests) use the LIKE
+ * fallback in ActivityRepository.
+ */
+@Repository
+public class ActivitySearchRepository {
+
+    // Weighted name (A) > category (B) > description (C); 'simple' keeps place names unstemmed
+    public static final String SEARCH_VECTOR_EXPRESSION =
+            "setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(category, '')), 'B') || " +
+            "setweight(to_tsvector('simple', coalesce(description, '')), 'C')";
+
+    // Relevance leads; the most popular places get at most about twice the rank of an unknown one
+    private static final String SEARCH_SQL =
+            "SELECT a.id, a.place_id, a.name, a.category, SUBSTRING(a.description, 1, " +
+            ActivitySummary.DESCRIPTION_PREVIEW_LENGTH + ") AS description, a.rating, a.user_ratings_total, " +
+            "a.price_level, a.photo_url, a.duration_minutes, a.estimated_cost, a.is_custom, " +
+            "a.latitude, a.longitude, a.address, a.popularity_score " +
+            "FROM activities a CROSS JOIN to_tsquery('simple', ?) q " +
+            "WHERE a.destination_id = ? AND a.search_vector @@ q " +
+            "ORDER BY ts_rank(a.search_vector, q) * (1 + LN(1 + COALESCE(a.popularity_score, 0)) / 5) DESC, a.id " +
+            "LIMIT ? OFFSET ?";
+
+    private static final RowMapper<ActivitySummary> SUMMARY_MAPPER = (rs, rowNum) -> new ActivitySummary(
+            rs.getLong("id"),
+            rs.getString("place_id"),
+            rs.getString("name"),
+            rs.getString("category"),
+            rs.getString("description"),
+            rs.getObject("rating", BigDecimal.class),
+            rs.getObject("user_ratings_total", Integer.class),
+            rs.getObject("price_level", Integer.class),
+            rs.getString("photo_url"),
+            rs.getObject("duration_minutes", Integer.class),
+            rs.getObject("estimated_cost", Double.class),
+            rs.getObject("is_custom", Boolean.class),
+            rs.getObject("latitude", BigDecimal.class),
+            rs.getObject("longitude", BigDecimal.class),
+            rs.getString("address"),
+            rs.getObject("popularity_score", Double.class));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean supported;
+
+    /**
+     * tsvector and GIN are PostgreSQL features; other databases (H2 in tests) use the LIKE fallback
+     */
+    public boolean isSupported() {
+        Boolean result = supported;
+        if (result == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(database);
+            supported = result;
+        }
+        return result;
+    }
+
+    public List<ActivitySummary> search(Long destinationId, String term, int limit, long offset) {
+        String tsQuery = toPrefixQuery(term);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SEARCH_SQL, SUMMARY_MAPPER, tsQuery, destinationId, limit, offset);
+    }
+
+    /**
+     * Turns free text into a tsquery where every word must match as a prefix: "eiff tow" becomes
+     * "eiff:* & tow:*". Anything but letters and digits is dropped, so user input can never
+     * produce tsquery syntax errors.
+     * @return the query, or an empty string when the term has no searchable words
+     */
+    public static String toPrefixQuery(String term) {
+        if (term == null) {
+            return "";
+        }
+        return Arrays.stream(term.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
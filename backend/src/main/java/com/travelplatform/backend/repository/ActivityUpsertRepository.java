@@ -0,0 +1,177 @@
+package com.travelplatform.backend.repository;
+
+import com.travelplatform.backend.entity.Activity;
+import com.travelplatform.backend.service.GooglePlacesService;
+import com.travelplatform.backend.util.ActivityPopularityUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Native PostgreSQL upsert for Places ingestion. One INSERT ... ON CONFLICT (place_id)
+ * per row, sent as JDBC batches, so concurrent refreshes (on any node) can never create
+ * duplicate rows for the same place. Update semantics mirror
+ * ActivityService.updateActivityWithNewData: incoming nulls never clear stored values.
+ * Rows whose content hash is unchanged are skipped by the conflict clause and only get
+ * their freshness timestamps bumped afterwards.
+ */
+@Repository
+public class ActivityUpsertRepository {
+
+    private static final int BATCH_SIZE = 50;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO activities (id, destination_id, place_id, name, description, category, rating, " +
+            "price_level, photo_url, duration_minutes, estimated_cost, estimated_duration, is_custom, " +
+            "latitude, longitude, opening_hours, website, phone, address, user_ratings_total, reviews_json, " +
+            "details_fetched_at, popularity_score, content_hash, created_at, updated_at) " +
+            "VALUES (nextval('activities_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (place_id) DO UPDATE SET " +
+            "description = CASE WHEN EXCLUDED.description IS NULL " +
+            "  OR (EXCLUDED.description = '" + GooglePlacesService.NO_DESCRIPTION + "' AND activities.description IS NOT NULL) " +
+            "  THEN activities.description ELSE EXCLUDED.description END, " +
+            "rating = COALESCE(EXCLUDED.rating, activities.rating), " +
+            "estimated_cost = COALESCE(EXCLUDED.estimated_cost, activities.estimated_cost), " +
+            "photo_url = COALESCE(EXCLUDED.photo_url, activities.photo_url), " +
+            "category = COALESCE(EXCLUDED.category, activities.category), " +
+            "user_ratings_total = COALESCE(EXCLUDED.user_ratings_total, activities.user_ratings_total), " +
+            "price_level = COALESCE(EXCLUDED.price_level, activities.price_level), " +
+            "opening_hours = COALESCE(EXCLUDED.opening_hours, activities.opening_hours), " +
+            "reviews_json = COALESCE(EXCLUDED.reviews_json, activities.reviews_json), " +
+            "website = COALESCE(EXCLUDED.website, activities.website), " +
+            "phone = COALESCE(EXCLUDED.phone, activities.phone), " +
+            "details_fetched_at = COALESCE(EXCLUDED.details_fetched_at, activities.details_fetched_at), " +
+            "popularity_score = " + popularityScoreOf(
+                    "COALESCE(EXCLUDED.rating, activities.rating)",
+                    "COALESCE(EXCLUDED.user_ratings_total, activities.user_ratings_total)") + ", " +
+            "content_hash = EXCLUDED.content_hash, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE activities.content_hash IS DISTINCT FROM EXCLUDED.content_hash";
+
+    // Rows written by the upsert above carry updated_at = now, so these only reach the skipped ones
+    private static final String TOUCH_SQL =
+            "UPDATE activities SET updated_at = ? WHERE place_id = ANY (?) AND updated_at < ?";
+
+    private static final String TOUCH_DETAILS_SQL =
+            "UPDATE activities SET updated_at = ?, details_fetched_at = ? WHERE place_id = ANY (?) AND updated_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean supported;
+
+    /**
+     * ON CONFLICT is PostgreSQL syntax; other databases (H2 in tests) use the JPA path
+     */
+    public boolean isSupported() {
+        Boolean result = supported;
+        if (result == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(database);
+            supported = result;
+        }
+        return result;
+    }
+
+    /**
+     * Insert or update every activity by placeId. Activities must have a placeId and a destination.
+     */
+    public void upsertAll(List<Activity> activities) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, activities, BATCH_SIZE, (ps, activity) -> {
+            int i = 1;
+            ps.setLong(i++, activity.getDestination().getId());
+            ps.setString(i++, activity.getPlaceId());
+            ps.setString(i++, activity.getName());
+            setNullable(ps, i++, activity.getDescription(), Types.VARCHAR);
+            ps.setString(i++, activity.getCategory());
+            setNullable(ps, i++, activity.getRating(), Types.NUMERIC);
+            setNullable(ps, i++, activity.getPriceLevel(), Types.INTEGER);
+            setNullable(ps, i++, activity.getPhotoUrl(), Types.VARCHAR);
+            ps.setInt(i++, activity.getDurationMinutes() != null ? activity.getDurationMinutes() : 120);
+            setNullable(ps, i++, activity.getEstimatedCost(), Types.DOUBLE);
+            setNullable(ps, i++, activity.getEstimatedDuration(), Types.INTEGER);
+            setNullable(ps, i++, activity.getLatitude(), Types.NUMERIC);
+            setNullable(ps, i++, activity.getLongitude(), Types.NUMERIC);
+            setNullable(ps, i++, activity.getOpeningHours(), Types.VARCHAR);
+            setNullable(ps, i++, activity.getWebsite(), Types.VARCHAR);
+            setNullable(ps, i++, activity.getPhone(), Types.VARCHAR);
+            setNullable(ps, i++, activity.getAddress(), Types.VARCHAR);
+            setNullable(ps, i++, activity.getUserRatingsTotal(), Types.INTEGER);
+            setNullable(ps, i++, activity.getReviewsJson(), Types.VARCHAR);
+            setNullable(ps, i++, activity.getDetailsFetchedAt() != null
+                    ? Timestamp.valueOf(activity.getDetailsFetchedAt()) : null, Types.TIMESTAMP);
+            ps.setDouble(i++, ActivityPopularityUtils.score(activity.getRating(), activity.getUserRatingsTotal()));
+            setNullable(ps, i++, activity.getContentHash(), Types.VARCHAR);
+            ps.setTimestamp(i++, now);
+            ps.setTimestamp(i, now);
+        });
+
+        touchSkipped(activities, now);
+    }
+
+    /**
+     * Bump freshness on the rows the conflict clause skipped. details_fetched_at is set to when
+     * Google actually answered, which for details replayed from the response cache is in the past;
+     * rows are grouped by it, rounded down to the minute as on the JPA path.
+     */
+    void touchSkipped(List<Activity> activities, Timestamp now) {
+        List<String> placeIds = new ArrayList<>();
+        Map<LocalDateTime, List<String>> placeIdsByDetailsFetchedAt = new TreeMap<>();
+        for (Activity activity : activities) {
+            if (activity.getDetailsFetchedAt() != null) {
+                placeIdsByDetailsFetchedAt.computeIfAbsent(activity.getDetailsFetchedAt().truncatedTo(ChronoUnit.MINUTES),
+                        fetchedAt -> new ArrayList<>()).add(activity.getPlaceId());
+            } else {
+                placeIds.add(activity.getPlaceId());
+            }
+        }
+        if (!placeIds.isEmpty()) {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(TOUCH_SQL);
+                ps.setTimestamp(1, now);
+                ps.setArray(2, connection.createArrayOf("text", placeIds.toArray()));
+                ps.setTimestamp(3, now);
+                return ps;
+            });
+        }
+        placeIdsByDetailsFetchedAt.forEach((fetchedAt, group) ->
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(TOUCH_DETAILS_SQL);
+                    ps.setTimestamp(1, now);
+                    ps.setTimestamp(2, Timestamp.valueOf(fetchedAt));
+                    ps.setArray(3, connection.createArrayOf("text", group.toArray()));
+                    ps.setTimestamp(4, now);
+                    return ps;
+                }));
+    }
+
+    // SQL form of ActivityPopularityUtils.score over the merged rating and ratings count
+    private static String popularityScoreOf(String rating, String userRatingsTotal) {
+        return "(CASE WHEN " + rating + " IS NULL THEN 0 " +
+                "WHEN " + userRatingsTotal + " > 100 THEN " + rating + " * LOG(" + userRatingsTotal + ") * 10 " +
+                "WHEN " + userRatingsTotal + " > 10 THEN " + rating + " * LOG(" + userRatingsTotal + ") * 5 " +
+                "ELSE " + rating + " * 2 END)::double precision";
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+}
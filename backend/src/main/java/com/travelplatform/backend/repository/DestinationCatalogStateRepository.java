@@ -0,0 +1,9 @@
+package com.travelplatform.backend.repository;
+
+import com.travelplatform.backend.entity.DestinationCatalogState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DestinationCatalogStateRepository extends JpaRepository<DestinationCatalogState, Long> {
+}
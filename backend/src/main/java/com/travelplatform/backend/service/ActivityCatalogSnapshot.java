@@ -0,0 +1,214 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.CostHistogram;
+
+import java.util.*;
+
+/**
+ * Immutable read model of one destination's catalog. Rows are held in popularity order next to
+ * primitive cost and rating columns (NaN when unknown), one bitset per category and
+ * precomputed rating and cost orderings, so every list filter is a scan over arrays in memory.
+ * The cost histogram and the destination's ActivityGeoIndex are computed once per snapshot,
+ * i.e. once per ingest or edit.
+ * A snapshot is never modified after it is built; ActivityCatalogSnapshotStore swaps in a new
+ * one when the catalog changes. Callers must not modify the returned summaries.
+ */
+public final class ActivityCatalogSnapshot {
+
+    private static final int MAX_COST_BUCKETS = 20;
+
+    public enum SortOrder {
+        POPULARITY, RATING, COST;
+
+        public static SortOrder fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return POPULARITY;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort: " + value);
+            }
+        }
+    }
+
+    private final ActivitySummary[] rows; // popularity DESC, id ASC
+    private final double[] costs;
+    private final double[] ratings;
+    private final Map<String, BitSet> categories;
+    private final int[] byRating; // rated rows highest first, unrated last
+    private final int[] byCost; // cheapest first, unknown cost last
+    private final CostHistogram costHistogram;
+    private final ActivityGeoIndex geoIndex;
+
+    private ActivityCatalogSnapshot(ActivitySummary[] rows) {
+        this.rows = rows;
+
+        int n = rows.length;
+        costs = new double[n];
+        ratings = new double[n];
+        Map<String, BitSet> categoryBits = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ActivitySummary row = rows[i];
+            costs[i] = row.getEstimatedCost() != null ? row.getEstimatedCost() : Double.NaN;
+            ratings[i] = row.getRating() != null ? row.getRating().doubleValue() : Double.NaN;
+            if (row.getCategory() != null) {
+                categoryBits.computeIfAbsent(row.getCategory(), c -> new BitSet(n)).set(i);
+            }
+        }
+        categories = Collections.unmodifiableMap(categoryBits);
+        byRating = orderBy(ratings, true);
+        byCost = orderBy(costs, false);
+        costHistogram = histogram(costs, byCost);
+        geoIndex = ActivityGeoIndex.build(Arrays.asList(rows));
+    }
+
+    public static ActivityCatalogSnapshot build(List<ActivitySummary> summaries) {
+        ActivitySummary[] rows = summaries.toArray(new ActivitySummary[0]);
+        Arrays.sort(rows, Comparator
+                .comparingDouble((ActivitySummary a) -> a.getPopularityScore() != null ? a.getPopularityScore() : 0.0)
+                .reversed()
+                .thenComparing(ActivitySummary::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new ActivityCatalogSnapshot(rows);
+    }
+
+    public List<ActivitySummary> all() {
+        return Collections.unmodifiableList(Arrays.asList(rows));
+    }
+
+    /**
+     * Filter and sort the catalog. Null arguments mean "no constraint"; a cost bound excludes
+     * activities without a cost, as the SQL range query does.
+     * @param limit maximum rows to return, or 0 for all
+     */
+    public List<ActivitySummary> query(String category, Double minCost, Double maxCost, SortOrder sort, int limit) {
+        BitSet inCategory = null;
+        if (category != null) {
+            inCategory = categories.get(category);
+            if (inCategory == null) {
+                return List.of();
+            }
+        }
+
+        int max = limit > 0 ? limit : rows.length;
+        List<ActivitySummary> result = new ArrayList<>(Math.min(max, rows.length));
+        // In cost order the range is contiguous: seek to the lower bound, stop past the upper one
+        int start = sort == SortOrder.COST && minCost != null ? firstCostAtLeast(minCost) : 0;
+        for (int k = start; k < rows.length && result.size() < max; k++) {
+            int i = switch (sort) {
+                case POPULARITY -> k;
+                case RATING -> byRating[k];
+                case COST -> byCost[k];
+            };
+            if (sort == SortOrder.COST && maxCost != null && !(costs[i] <= maxCost)) break;
+            if (inCategory != null && !inCategory.get(i)) continue;
+            if (minCost != null && !(costs[i] >= minCost)) continue;
+            if (maxCost != null && !(costs[i] <= maxCost)) continue;
+            result.add(rows[i]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Rated activities, highest rating first. Walks the precomputed rating order and stops as
+     * soon as the limit is filled.
+     * @param minReviews skip activities with fewer ratings than this (unknown counts as 0)
+     * @param limit maximum rows to return, or 0 for all
+     */
+    public List<ActivitySummary> topRated(int minReviews, int limit) {
+        int max = limit > 0 ? limit : rows.length;
+        List<ActivitySummary> result = new ArrayList<>(Math.min(max, rows.length));
+        for (int k = 0; k < byRating.length && result.size() < max && !Double.isNaN(ratings[byRating[k]]); k++) {
+            ActivitySummary row = rows[byRating[k]];
+            if (minReviews > 0 && (row.getUserRatingsTotal() == null || row.getUserRatingsTotal() < minReviews)) continue;
+            result.add(row);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public CostHistogram costHistogram() {
+        return costHistogram;
+    }
+
+    public ActivityGeoIndex geoIndex() {
+        return geoIndex;
+    }
+
+    public Set<String> categories() {
+        return categories.keySet();
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    private int firstCostAtLeast(double minCost) {
+        int low = 0;
+        int high = byCost.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (costs[byCost[mid]] < minCost) { // NaN compares false, and NaN rows sort last
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static CostHistogram histogram(double[] costs, int[] byCost) {
+        double[] sorted = Arrays.stream(byCost).mapToDouble(i -> costs[i]).filter(c -> !Double.isNaN(c)).toArray();
+        int priced = sorted.length;
+        int unpriced = costs.length - priced;
+        if (priced == 0) {
+            return new CostHistogram(0, unpriced, null, null, null, null, null, null, null, List.of());
+        }
+
+        double min = sorted[0];
+        double max = sorted[priced - 1];
+        int bucketCount = max > min ? Math.min(MAX_COST_BUCKETS, priced) : 1;
+        double width = (max - min) / bucketCount;
+        int[] counts = new int[bucketCount];
+        for (double cost : sorted) {
+            int bucket = width > 0 ? (int) ((cost - min) / width) : 0;
+            counts[Math.min(bucket, bucketCount - 1)]++;
+        }
+        List<CostHistogram.Bucket> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            double upper = b == bucketCount - 1 ? max : min + width * (b + 1);
+            buckets.add(new CostHistogram.Bucket(min + width * b, upper, counts[b]));
+        }
+
+        return new CostHistogram(priced, unpriced, min, max,
+                percentile(sorted, 0.10), percentile(sorted, 0.25), percentile(sorted, 0.50),
+                percentile(sorted, 0.75), percentile(sorted, 0.90), List.copyOf(buckets));
+    }
+
+    // Nearest-rank, so every percentile is a cost some activity actually has
+    private static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    // Stable over the popularity order, so ties keep the most popular first
+    private static int[] orderBy(double[] column, boolean descending) {
+        Integer[] order = new Integer[column.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            double x = column[a];
+            double y = column[b];
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                return Boolean.compare(Double.isNaN(x), Double.isNaN(y));
+            }
+            return descending ? Double.compare(y, x) : Double.compare(x, y);
+        });
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+package com.travelplatform.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.repository.ActivityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the current ActivityCatalogSnapshot per destination, each with its own ActivityGeoIndex.
+ * Snapshots live in a bounded Caffeine cache: concurrent readers of a missing destination share
+ * one build, a snapshot past max-age is rebuilt in the background while readers keep the old one,
+ * and a destination's snapshot is replaced wholesale (copy-on-write) after its catalog changes.
+ * Nearby queries fan out over the snapshots of the destinations that have located activities;
+ * the missing ones are built together from a single query, and a write to one destination never
+ * rebuilds the others' geo indexes.
+ * Writes on this node invalidate once their transaction commits; max-age bounds how long
+ * writes from other nodes go unseen.
+ */
+@Component
+public class ActivityCatalogSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityCatalogSnapshotStore.class);
+
+    // Invalidating a key drops its in-flight build or refresh, so a load that raced with a write is never installed
+    private final AsyncLoadingCache<Long, ActivityCatalogSnapshot> snapshots;
+
+    private final Object geoLock = new Object();
+    private LocatedDestinations locatedDestinations; // Guarded by geoLock, as is geoGeneration
+    private long geoGeneration;
+
+    private final ActivityRepository activityRepository;
+    private final Duration maxAge;
+
+    public ActivityCatalogSnapshotStore(ActivityRepository activityRepository,
+                                        @Value("${activities.snapshot.max-age:5m}") Duration maxAge,
+                                        @Value("${activities.snapshot.max-destinations:1000}") long maxDestinations) {
+        this.activityRepository = activityRepository;
+        this.maxAge = maxAge;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxDestinations)
+                .refreshAfterWrite(maxAge)
+                .buildAsync(new SnapshotLoader());
+    }
+
+    public ActivityCatalogSnapshot get(Long destinationId) {
+        return join(snapshots.get(destinationId));
+    }
+
+    /**
+     * The geo index of every destination with located activities, from their current snapshots
+     */
+    public List<ActivityGeoIndex> getGeoIndexes() {
+        List<ActivityGeoIndex> indexes = new ArrayList<>();
+        for (ActivityCatalogSnapshot snapshot : join(snapshots.getAll(locatedDestinationIds())).values()) {
+            ActivityGeoIndex index = snapshot.geoIndex();
+            if (index.size() > 0) {
+                indexes.add(index);
+            }
+        }
+        return indexes;
+    }
+
+    private Set<Long> locatedDestinationIds() {
+        long generation;
+        synchronized (geoLock) {
+            if (locatedDestinations != null && !locatedDestinations.isOlderThan(maxAge)) {
+                return locatedDestinations.ids();
+            }
+            generation = geoGeneration;
+        }
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ids.addAll(activityRepository.findDestinationIdsWithCoordinates());
+        synchronized (geoLock) {
+            if (geoGeneration == generation) {
+                locatedDestinations = new LocatedDestinations(ids, Instant.now());
+            }
+        }
+        logger.debug("Loaded {} destinations with located activities", ids.size());
+        return ids;
+    }
+
+    // Rethrows what the build threw (e.g. a DataAccessException) rather than Caffeine's wrapper
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(Long destinationId) {
+        snapshots.synchronous().invalidate(destinationId);
+        // The write may have given a destination its first coordinates; only its own index is rebuilt
+        synchronized (geoLock) {
+            geoGeneration++;
+            if (locatedDestinations != null) {
+                locatedDestinations.ids().add(destinationId);
+            }
+        }
+    }
+
+    /**
+     * Invalidate once the surrounding transaction commits, so no reader can rebuild from
+     * rows that are about to change. Without a transaction this invalidates immediately.
+     */
+    public void invalidateAfterCommit(Long destinationId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(destinationId);
+                }
+            });
+        } else {
+            invalidate(destinationId);
+        }
+    }
+
+    private final class SnapshotLoader implements CacheLoader<Long, ActivityCatalogSnapshot> {
+
+        @Override
+        public ActivityCatalogSnapshot load(Long destinationId) {
+            ActivityCatalogSnapshot snapshot = ActivityCatalogSnapshot.build(
+                    activityRepository.findSummariesByDestinationId(destinationId));
+            logger.debug("Built catalog snapshot for destination: {} ({} activities)", destinationId, snapshot.size());
+            return snapshot;
+        }
+
+        @Override
+        public Map<Long, ActivityCatalogSnapshot> loadAll(Set<? extends Long> destinationIds) {
+            Map<Long, List<ActivitySummary>> rowsByDestination = new HashMap<>();
+            for (Object[] row : activityRepository.findSummariesByDestinationIdIn(List.copyOf(destinationIds))) {
+                rowsByDestination.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((ActivitySummary) row[1]);
+            }
+            Map<Long, ActivityCatalogSnapshot> loaded = new HashMap<>();
+            for (Long destinationId : destinationIds) {
+                loaded.put(destinationId, ActivityCatalogSnapshot.build(
+                        rowsByDestination.getOrDefault(destinationId, List.of())));
+            }
+            logger.debug("Built catalog snapshots for {} destinations", loaded.size());
+            return loaded;
+        }
+    }
+
+    private record LocatedDestinations(Set<Long> ids, Instant loadedAt) {
+        boolean isOlderThan(Duration maxAge) {
+            return loadedAt.plus(maxAge).isBefore(Instant.now());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.NearbyActivity;
+
+import java.util.*;
+
+/**
+ * Immutable spatial index over one destination's activities with coordinates, built with its
+ * catalog snapshot. Points are bucketed into a fixed lat/lng grid (CELL_DEGREES per side) and
+ * stored sorted by cell key in primitive arrays, so a radius query binary-searches one
+ * contiguous key range per grid row and only computes haversine distances for points in the
+ * covering cells.
+ */
+public final class ActivityGeoIndex {
+
+    private static final double CELL_DEGREES = 0.01; // ~1.1 km of latitude
+    private static final long CELLS_PER_ROW = Math.round(360 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private final long[] cellKeys; // ascending
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final ActivitySummary[] rows;
+
+    private ActivityGeoIndex(long[] cellKeys, double[] latitudes, double[] longitudes, ActivitySummary[] rows) {
+        this.cellKeys = cellKeys;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.rows = rows;
+    }
+
+    /**
+     * Rows without both coordinates are skipped
+     */
+    public static ActivityGeoIndex build(List<ActivitySummary> summaries) {
+        List<ActivitySummary> located = new ArrayList<>(summaries.size());
+        for (ActivitySummary summary : summaries) {
+            if (summary.getLatitude() != null && summary.getLongitude() != null) {
+                located.add(summary);
+            }
+        }
+
+        int n = located.size();
+        long[] keys = new long[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ActivitySummary summary = located.get(i);
+            keys[i] = cellKey(latRow(summary.getLatitude().doubleValue()), lngColumn(summary.getLongitude().doubleValue()));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+
+        long[] cellKeys = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        ActivitySummary[] rows = new ActivitySummary[n];
+        for (int k = 0; k < n; k++) {
+            ActivitySummary summary = located.get(order[k]);
+            cellKeys[k] = keys[order[k]];
+            latitudes[k] = summary.getLatitude().doubleValue();
+            longitudes[k] = summary.getLongitude().doubleValue();
+            rows[k] = summary;
+        }
+        return new ActivityGeoIndex(cellKeys, latitudes, longitudes, rows);
+    }
+
+    /**
+     * Activities within radiusMeters of the point, nearest first
+     * @param category only this category, or null for all
+     * @param limit maximum results, or 0 for all
+     */
+    public List<NearbyActivity> nearby(double latitude, double longitude, double radiusMeters, String category, int limit) {
+        if (cellKeys.length == 0) {
+            return List.of();
+        }
+        // Keys are row-major, so the first and last give the rows this index has points in;
+        // an index for a destination far from the query is skipped without any search
+        double latDelta = radiusMeters / METERS_PER_DEGREE_LAT;
+        int minRow = Math.max(latRow(Math.max(-90, latitude - latDelta)), (int) (cellKeys[0] / CELLS_PER_ROW));
+        int maxRow = Math.min(latRow(Math.min(90, latitude + latDelta)), (int) (cellKeys[cellKeys.length - 1] / CELLS_PER_ROW));
+        if (minRow > maxRow) {
+            return List.of();
+        }
+
+        // Widest longitude span of the circle, taken at the bounding box edge nearest a pole
+        double maxAbsLat = Math.min(90, Math.abs(latitude) + latDelta);
+        double cosLat = Math.cos(Math.toRadians(maxAbsLat));
+        double lngDelta = cosLat > 1e-9 ? latDelta / cosLat : 360;
+
+        List<long[]> columnRanges = new ArrayList<>(2);
+        if (lngDelta >= 180) {
+            columnRanges.add(new long[]{0, CELLS_PER_ROW - 1});
+        } else {
+            double west = longitude - lngDelta;
+            double east = longitude + lngDelta;
+            if (west < -180) {
+                columnRanges.add(new long[]{lngColumn(west + 360), CELLS_PER_ROW - 1});
+                columnRanges.add(new long[]{0, lngColumn(east)});
+            } else if (east >= 180) {
+                columnRanges.add(new long[]{lngColumn(west), CELLS_PER_ROW - 1});
+                columnRanges.add(new long[]{0, lngColumn(east - 360)});
+            } else {
+                columnRanges.add(new long[]{lngColumn(west), lngColumn(east)});
+            }
+        }
+
+        // With a limit, keep only the nearest so far in a max-heap instead of sorting every hit
+        Comparator<NearbyActivity> nearestFirst = Comparator.comparingDouble(NearbyActivity::getDistanceMeters);
+        PriorityQueue<NearbyActivity> nearest = limit > 0 ? new PriorityQueue<>(limit + 1, nearestFirst.reversed()) : null;
+        List<NearbyActivity> hits = new ArrayList<>();
+        for (int row = minRow; row <= maxRow; row++) {
+            for (long[] columns : columnRanges) {
+                int from = lowerBound(cellKey(row, columns[0]));
+                int to = lowerBound(cellKey(row, columns[1]) + 1);
+                for (int i = from; i < to; i++) {
+                    if (category != null && !category.equals(rows[i].getCategory())) continue;
+                    double distance = haversineMeters(latitude, longitude, latitudes[i], longitudes[i]);
+                    if (distance > radiusMeters) continue;
+                    if (nearest == null) {
+                        hits.add(new NearbyActivity(rows[i], distance));
+                    } else if (nearest.size() < limit) {
+                        nearest.add(new NearbyActivity(rows[i], distance));
+                    } else if (distance < nearest.peek().getDistanceMeters()) {
+                        nearest.poll();
+                        nearest.add(new NearbyActivity(rows[i], distance));
+                    }
+                }
+            }
+        }
+
+        if (nearest != null) {
+            hits.addAll(nearest);
+        }
+        hits.sort(nearestFirst);
+        return Collections.unmodifiableList(hits);
+    }
+
+    /**
+     * Nearby across several indexes (one per destination), merged nearest first
+     * @param limit maximum results overall, or 0 for all
+     */
+    public static List<NearbyActivity> nearby(Collection<ActivityGeoIndex> indexes, double latitude, double longitude,
+                                              double radiusMeters, String category, int limit) {
+        List<NearbyActivity> hits = new ArrayList<>();
+        for (ActivityGeoIndex index : indexes) {
+            hits.addAll(index.nearby(latitude, longitude, radiusMeters, category, limit));
+        }
+        hits.sort(Comparator.comparingDouble(NearbyActivity::getDistanceMeters));
+        return Collections.unmodifiableList(limit > 0 && hits.size() > limit ? hits.subList(0, limit) : hits);
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // First index whose key is >= the given key
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = cellKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cellKeys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int latRow(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static long lngColumn(double longitude) {
+        return Math.min(CELLS_PER_ROW - 1, (long) Math.floor((longitude + 180) / CELL_DEGREES));
+    }
+
+    private static long cellKey(int row, long column) {
+        return row * CELLS_PER_ROW + column;
+    }
+}
@@ -1,21 +1,39 @@
 package com.travelplatform.backend.service;
 
+import com.travelplatform.backend.dto.ActivityFeedCursor;
+import com.travelplatform.backend.dto.ActivityPageResponse;
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.CostHistogram;
+import com.travelplatform.backend.dto.NearbyActivity;
 import com.travelplatform.backend.entity.Activity;
 import com.travelplatform.backend.entity.Destination;
+import com.travelplatform.backend.entity.DestinationCatalogState;
 import com.travelplatform.backend.exception.ActivityNotFoundException;
 import com.travelplatform.backend.exception.DestinationNotFoundException;
 import com.travelplatform.backend.repository.ActivityRepository;
+import com.travelplatform.backend.repository.ActivitySearchRepository;
+import com.travelplatform.backend.repository.ActivityUpsertRepository;
 import com.travelplatform.backend.repository.DestinationRepository;
+import com.travelplatform.backend.util.ActivityContentHashUtils;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 @Service
 public class ActivityService {
@@ -25,6 +43,10 @@ public class ActivityService {
     // Cache configuration constant
     private static final int CACHE_TTL_DAYS = 30;
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final double MAX_NEARBY_RADIUS_METERS = 50_000;
+
     @Autowired
     private ActivityRepository activityRepository;
 
@@ -37,29 +59,150 @@ public class ActivityService {
     @Autowired
     private CostMultiplierService costMultiplierService;
 
+    @Autowired
+    private PlacesEnrichmentService placesEnrichmentService;
+
+    @Autowired
+    private DestinationRefreshCoordinator refreshCoordinator;
+
+    @Autowired
+    private ActivityUpsertRepository activityUpsertRepository;
+
+    @Autowired
+    private DestinationCatalogStateService catalogStateService;
+
+    @Autowired
+    private ActivitySearchRepository activitySearchRepository;
+
+    @Autowired
+    private ActivityCatalogSnapshotStore snapshotStore;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("activityRefreshExecutor")
+    private Executor refreshExecutor;
+
+    @Value("${activities.cache.stale-while-revalidate:true}")
+    private boolean staleWhileRevalidate;
+
     /**
      * Get ALL activities for a destination with smart caching
-     * Returns complete dataset for frontend pagination
+     * Returns complete dataset for frontend pagination, as summaries; getActivityById has the details
      */
-    public List<Activity> getAllActivitiesByDestination(Long destinationId) {
-        logger.info("Fetching all activities for destination: {}", destinationId);
+    public List<ActivitySummary> getAllActivitiesByDestination(Long destinationId) {
+        return getAllActivitiesByDestination(destinationId, null, ActivityCatalogSnapshot.SortOrder.POPULARITY);
+    }
 
-        // Smart refresh logic - check if stale and refresh if needed
-        if (shouldRefreshFromGooglePlaces(destinationId)) {
-            logger.info("Cache is stale, refreshing from Google Places for destination: {}", destinationId);
-            refreshActivitiesFromGooglePlaces(destinationId);
-        }
+    /**
+     * Same as above, narrowed to one category (null for all) and sorted; served from the
+     * in-memory catalog snapshot
+     */
+    public List<ActivitySummary> getAllActivitiesByDestination(Long destinationId, String category,
+                                                               ActivityCatalogSnapshot.SortOrder sort) {
+        logger.info("Fetching all activities for destination: {}", destinationId);
+        ensureCatalogLoaded(destinationId);
 
-        // Return ALL activities from database
-        List<Activity> allActivities = activityRepository.findByDestinationId(destinationId);
+        List<ActivitySummary> allActivities = snapshotStore.get(destinationId).query(category, null, null, sort, 0);
         logger.info("Returning {} total activities for destination: {}", allActivities.size(), destinationId);
         return allActivities;
     }
 
     /**
-     * Force refresh activities from Google Places API (bypasses cache)
+     * One page of a destination's activities by popularity, using keyset pagination on
+     * (popularityScore, id): each page is an index seek from the cursor, never an OFFSET scan.
+     * @param cursor nextCursor from the previous page, or null for the first page
+     */
+    public ActivityPageResponse getPopularityFeed(Long destinationId, String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        List<ActivitySummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            ensureCatalogLoaded(destinationId);
+            rows = activityRepository.findPopularityFeed(destinationId, Limit.of(size + 1));
+        } else {
+            ActivityFeedCursor after = ActivityFeedCursor.decode(cursor);
+            rows = activityRepository.findPopularityFeedAfter(
+                    destinationId, after.getPopularityScore(), after.getId(), Limit.of(size + 1));
+        }
+
+        // One extra row tells us whether another page exists without a COUNT
+        boolean hasMore = rows.size() > size;
+        List<ActivitySummary> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ActivitySummary last = page.get(page.size() - 1);
+            double score = last.getPopularityScore() != null ? last.getPopularityScore() : 0.0;
+            nextCursor = new ActivityFeedCursor(score, last.getId()).encode();
+        }
+        return ActivityPageResponse.fromKeyset(new ArrayList<>(page), hasMore, nextCursor, size);
+    }
+
+    /**
+     * Ranked search over a destination's activities by name, category and description.
+     * PostgreSQL uses the GIN-indexed full-text search with prefix matching; other databases
+     * fall back to a substring match ordered by popularity.
+     * @param page 1-based page number
+     */
+    public ActivityPageResponse searchActivities(Long destinationId, String query, int page, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(1, page);
+        long offset = (long) (pageNumber - 1) * size;
+
+        List<ActivitySummary> rows;
+        boolean hasMore;
+        if (query == null || query.isBlank()) {
+            rows = List.of();
+            hasMore = false;
+        } else if (activitySearchRepository.isSupported()) {
+            // One row past the page tells us whether another page exists without a COUNT
+            rows = activitySearchRepository.search(destinationId, query.trim(), size + 1, offset);
+            hasMore = rows.size() > size;
+            if (hasMore) {
+                rows = rows.subList(0, size);
+            }
+        } else {
+            Slice<ActivitySummary> slice = activityRepository.searchByDestinationAndTerm(
+                    destinationId, query.trim(), PageRequest.of(pageNumber - 1, size));
+            rows = slice.getContent();
+            hasMore = slice.hasNext();
+        }
+
+        ActivityPageResponse response = ActivityPageResponse.fromKeyset(new ArrayList<>(rows), hasMore, null, size);
+        response.setCurrentPage(pageNumber);
+        response.setQuery(query);
+        return response;
+    }
+
+    /**
+     * Smart refresh logic - only an empty destination blocks on Google Places
      */
-    @CacheEvict(value = "destinationActivities", key = "#destinationId")
+    private void ensureCatalogLoaded(Long destinationId) {
+        CatalogFreshness freshness = getCatalogFreshness(destinationId);
+        if (freshness == CatalogFreshness.EMPTY
+                || (freshness == CatalogFreshness.STALE && !staleWhileRevalidate)) {
+            logger.info("Cache is {}, refreshing from Google Places for destination: {}", freshness, destinationId);
+            refreshCoordinator.refresh(destinationId, () -> refreshActivitiesFromGooglePlaces(destinationId, false));
+        } else if (freshness == CatalogFreshness.STALE) {
+            logger.info("Serving stale activities for destination: {} while revalidating in background", destinationId);
+            refreshCoordinator.refreshInBackground(destinationId,
+                    () -> refreshActivitiesFromGooglePlaces(destinationId, false), refreshExecutor);
+        }
+    }
+
+    /**
+     * True while a Places refresh for this destination is actually queued or running. False
+     * when the background queue rejected it or the refresh has already finished (or failed).
+     */
+    public boolean isRevalidating(Long destinationId) {
+        return refreshCoordinator.isRefreshing(destinationId);
+    }
+
+    /**
+     * Force refresh activities from Google Places API, bypassing the stored catalog, the Places
+     * response cache and the per-activity details freshness check
+     */
+    @CacheEvict(value = {"activityById", "activityCategories", "catalogStats"}, allEntries = true)
     public List<Activity> forceRefreshActivities(Long destinationId) {
         return getActivitiesWithSmartRefresh(destinationId, true);
     }
@@ -71,8 +214,9 @@ public class ActivityService {
         logger.info("Fetching activities for destination: {} (forceRefresh: {})", destinationId, forceRefresh);
 
         // If force refresh or cache is stale, get fresh data from Google Places
-        if (forceRefresh || shouldRefreshFromGooglePlaces(destinationId)) {
-            return refreshActivitiesFromGooglePlaces(destinationId);
+        if (forceRefresh || getCatalogFreshness(destinationId) != CatalogFreshness.FRESH) {
+            return refreshCoordinator.refresh(destinationId,
+                    () -> refreshActivitiesFromGooglePlaces(destinationId, forceRefresh));
         }
 
         // Return existing cached data
@@ -82,94 +226,113 @@ public class ActivityService {
     }
 
     /**
-     * Check if we should refresh activities from Google Places API
+     * Check whether the cached activities for a destination are missing, stale or fresh
      */
-    private boolean shouldRefreshFromGooglePlaces(Long destinationId) {
-        // Check if we have any activities for this destination
-        long activityCount = getActivityCount(destinationId);
+    private CatalogFreshness getCatalogFreshness(Long destinationId) {
+        DestinationCatalogState state = catalogStateService.getOrInitialize(destinationId);
 
-        if (activityCount == 0) {
+        if (state.getActivityCount() == 0) {
             logger.info("No activities found for destination: {}, will fetch from Google Places", destinationId);
-            return true;
+            return CatalogFreshness.EMPTY;
         }
 
         // Check if our cached data is stale (older than CACHE_TTL_DAYS)
-        Optional<Activity> mostRecentActivity = getMostRecentActivity(destinationId);
-        if (mostRecentActivity.isPresent()) {
-            LocalDateTime lastUpdate = mostRecentActivity.get().getUpdatedAt();
-            if (lastUpdate != null) {
-                LocalDateTime cacheExpiry = lastUpdate.plusDays(CACHE_TTL_DAYS);
-
-                if (LocalDateTime.now().isAfter(cacheExpiry)) {
-                    logger.info("Cached activities for destination: {} are stale (older than {} days), will refresh",
-                            destinationId, CACHE_TTL_DAYS);
-                    return true;
-                }
+        if (isExpired(state)) {
+            if (catalogStateService.isBackingOff(state)) {
+                // Keep serving the stored catalog rather than retrying a failing Google on every read
+                logger.info("Cached activities for destination: {} are stale, but the refresh failed at {}; retrying later",
+                        destinationId, state.getLastFailedAt());
+                return CatalogFreshness.FRESH;
             }
+            logger.info("Cached activities for destination: {} are stale (older than {} days)",
+                    destinationId, CACHE_TTL_DAYS);
+            return CatalogFreshness.STALE;
         }
 
         logger.info("Using fresh cached activities for destination: {}", destinationId);
-        return false;
+        return CatalogFreshness.FRESH;
+    }
+
+    private static boolean isExpired(DestinationCatalogState state) {
+        LocalDateTime lastRefresh = state.getLastRefreshedAt();
+        return lastRefresh == null || LocalDateTime.now().isAfter(lastRefresh.plusDays(CACHE_TTL_DAYS));
     }
 
     /**
      * Refresh activities from Google Places API
+     * @param forceRefresh skip cached Places responses and refetch details even where stored ones are fresh
      */
-    private List<Activity> refreshActivitiesFromGooglePlaces(Long destinationId) {
+    private List<Activity> refreshActivitiesFromGooglePlaces(Long destinationId, boolean forceRefresh) {
         logger.info("Refreshing activities from Google Places API for destination: {}", destinationId);
+        catalogStateService.markRefreshing(destinationId);
 
         try {
             // Fetch fresh data from Google Places
-            List<Activity> newActivities = fetchFromGooglePlaces(destinationId, null, null);
+            List<Activity> newActivities = fetchFromGooglePlaces(destinationId, null, null, forceRefresh);
 
             if (newActivities.isEmpty()) {
                 logger.warn("Google Places API returned no activities for destination: {}", destinationId);
+                catalogStateService.recordRefreshFailed(destinationId);
                 // Return existing cached data as fallback
                 return activityRepository.findByDestinationId(destinationId);
             }
 
             // Save new activities (existing method handles duplicates)
             List<Activity> savedActivities = saveActivitiesFromPlaces(newActivities, destinationId);
+            catalogStateService.recordRefreshSucceeded(destinationId);
+            // Called on this, not the proxy, so the save's @CacheEvict never ran
+            evictActivityCaches();
 
             logger.info("Successfully refreshed {} activities for destination: {}", savedActivities.size(), destinationId);
             return savedActivities;
 
         } catch (Exception e) {
             logger.error("Failed to refresh activities from Google Places for destination: {}", destinationId, e);
+            catalogStateService.recordRefreshFailed(destinationId);
             // Graceful degradation - return cached data
             return activityRepository.findByDestinationId(destinationId);
         }
     }
 
     /**
-     * Get most recently updated activity for cache freshness check
+     * Same eviction as the @CacheEvict on saveActivitiesFromPlaces, for refreshes that run on a
+     * background thread or otherwise reach the save without going through the proxy.
      */
-    private Optional<Activity> getMostRecentActivity(Long destinationId) {
-        List<Activity> activities = activityRepository.findByDestinationId(destinationId);
-        return activities.stream()
-                .filter(a -> a.getUpdatedAt() != null)
-                .max((a1, a2) -> a1.getUpdatedAt().compareTo(a2.getUpdatedAt()));
+    private void evictActivityCaches() {
+        for (String name : List.of("activityById", "activityCategories", "catalogStats")) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
     }
 
     /**
-     * Get cache statistics for monitoring
+     * Get cache statistics for monitoring. Counts come from one grouped aggregate; staleness and the
+     * last refresh come from the catalog state, as they do for the refresh decision. The result is
+     * cached briefly since the list endpoints ask on every call.
      */
+    @Cacheable(value = "catalogStats", key = "#destinationId")
     public CacheStats getCacheStats(Long destinationId) {
-        long totalActivities = getActivityCount(destinationId);
-        long googlePlacesActivities = activityRepository.findByDestinationIdAndIsCustomFalse(destinationId).size();
-        long customActivities = activityRepository.findByDestinationIdAndIsCustomTrue(destinationId).size();
-
-        Optional<Activity> mostRecent = getMostRecentActivity(destinationId);
-        LocalDateTime lastRefresh = mostRecent.map(Activity::getUpdatedAt).orElse(null);
+        long googlePlacesActivities = 0;
+        long customActivities = 0;
+        for (ActivityRepository.CatalogAggregate row : activityRepository.aggregateByCustomFlag(destinationId)) {
+            if (Boolean.TRUE.equals(row.getCustom())) {
+                customActivities += row.getActivityCount();
+            } else {
+                googlePlacesActivities += row.getActivityCount();
+            }
+        }
 
-        boolean isCacheStale = lastRefresh != null &&
-                LocalDateTime.now().isAfter(lastRefresh.plusDays(CACHE_TTL_DAYS));
+        // An empty catalog is fetched rather than revalidated, so it is never reported stale
+        DestinationCatalogState state = catalogStateService.getOrInitialize(destinationId);
+        boolean isCacheStale = state.getActivityCount() > 0 && isExpired(state);
 
         return new CacheStats(
-                totalActivities,
+                googlePlacesActivities + customActivities,
                 googlePlacesActivities,
                 customActivities,
-                lastRefresh,
+                state.getLastRefreshedAt(),
                 isCacheStale,
                 CACHE_TTL_DAYS
         );
@@ -181,7 +344,7 @@ public class ActivityService {
                 .orElseThrow(() -> new ActivityNotFoundException(id)));
     }
 
-    @CacheEvict(value = {"activityById", "destinationActivities", "categoryActivities"}, allEntries = true)
+    @CacheEvict(value = {"activityById", "activityCategories", "catalogStats"}, allEntries = true)
     public Activity updateActivity(Long id, String name, String description, String category,
                                    Integer durationMinutes, Double costEstimate) {
         Activity activity = activityRepository.findById(id)
@@ -193,24 +356,60 @@ public class ActivityService {
         if (durationMinutes != null) activity.setDurationMinutes(durationMinutes);
         if (costEstimate != null) activity.setEstimatedCost(costEstimate);
 
-        return activityRepository.save(activity);
+        Activity saved = activityRepository.save(activity);
+        invalidateSnapshot(saved);
+        return saved;
     }
 
-    @CacheEvict(value = {"activityById", "destinationActivities", "categoryActivities"}, allEntries = true)
+    @CacheEvict(value = {"activityById", "activityCategories", "catalogStats"}, allEntries = true)
     public void deleteActivity(Long id) {
-        if (!activityRepository.existsById(id)) {
-            throw new ActivityNotFoundException(id);
-        }
+        Long destinationId = activityRepository.findDestinationIdById(id)
+                .orElseThrow(() -> new ActivityNotFoundException(id));
         activityRepository.deleteById(id);
+        catalogStateService.recordActivitiesChanged(destinationId);
+        snapshotStore.invalidateAfterCommit(destinationId);
+    }
+
+    /**
+     * Activities within radiusMeters of a point across all destinations, nearest first,
+     * answered from the destinations' in-memory geo indexes
+     */
+    public List<NearbyActivity> getNearbyActivities(double latitude, double longitude, double radiusMeters,
+                                                    String category, int limit) {
+        // NaN fails every comparison, so range checks alone would let it through
+        if (!Double.isFinite(latitude) || !Double.isFinite(longitude)
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range: " + latitude + ", " + longitude);
+        }
+        if (!Double.isFinite(radiusMeters) || radiusMeters <= 0 || radiusMeters > MAX_NEARBY_RADIUS_METERS) {
+            throw new IllegalArgumentException("radiusMeters must be between 1 and " + (int) MAX_NEARBY_RADIUS_METERS);
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ActivityGeoIndex.nearby(snapshotStore.getGeoIndexes(), latitude, longitude, radiusMeters, category, size);
+    }
+
+    /**
+     * The destination's highest rated activities, at most limit of them (clamped to 1..MAX_PAGE_SIZE),
+     * read from the catalog snapshot's precomputed rating order
+     * @param minReviews leave out activities rated by fewer people than this
+     */
+    public List<ActivitySummary> getTopRatedActivities(Long destinationId, int minReviews, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return snapshotStore.get(destinationId).topRated(Math.max(0, minReviews), size);
     }
 
-    @Cacheable(value = "topRatedActivities", key = "#destinationId")
-    public List<Activity> getTopRatedActivities(Long destinationId) {
-        return activityRepository.findTopRatedByDestination(destinationId);
+    /**
+     * Activities within the cost bounds (null for open-ended), cheapest first, from the catalog snapshot
+     */
+    public List<ActivitySummary> getActivitiesByCostRange(Long destinationId, Double minCost, Double maxCost) {
+        return snapshotStore.get(destinationId).query(null, minCost, maxCost, ActivityCatalogSnapshot.SortOrder.COST, 0);
     }
 
-    public List<Activity> getActivitiesByCostRange(Long destinationId, Integer minCost, Integer maxCost) {
-        return activityRepository.findByDestinationAndCostRange(destinationId, minCost, maxCost);
+    /**
+     * Cost distribution for the range slider, precomputed with the destination's snapshot
+     */
+    public CostHistogram getCostHistogram(Long destinationId) {
+        return snapshotStore.get(destinationId).costHistogram();
     }
 
     public long getActivityCount(Long destinationId) {
@@ -218,96 +417,211 @@ public class ActivityService {
     }
 
     /**
-     * Save activities from Google Places API, avoiding duplicates
+     * Save activities from Google Places API, avoiding duplicates.
+     * On PostgreSQL rows are upserted natively on the unique place_id; elsewhere existing rows
+     * are prefetched in one query and matched in memory (by placeId, then by name within the
+     * destination), so inserts and updates go out as JDBC batches on flush.
      */
     @Transactional
+    @CacheEvict(value = {"activityById", "activityCategories", "catalogStats"}, allEntries = true)
     public List<Activity> saveActivitiesFromPlaces(List<Activity> activities, Long destinationId) {
-        List<Activity> savedActivities = new ArrayList<>();
-
         Optional<Destination> destinationOpt = destinationRepository.findById(destinationId);
         if (destinationOpt.isEmpty()) {
             throw new DestinationNotFoundException(destinationId);
         }
         Destination destination = destinationOpt.get();
 
-        int newCount = 0;
-        int updatedCount = 0;
-        Set<String> processedInBatch = new HashSet<>(); // Prevent within-batch duplicates
+        for (Activity activity : activities) {
+            activity.setDestination(destination);
+
+            // The only place the city multiplier is applied; Places search and enrichment produce base costs
+            if (activity.getEstimatedCost() != null) {
+                double adjustedCost = costMultiplierService.applyMultiplier(
+                        activity.getEstimatedCost(), destination.getName());
+                activity.setEstimatedCost((double) Math.round(adjustedCost));
+            }
+            activity.setContentHash(ActivityContentHashUtils.compute(activity));
+        }
+
+        List<Activity> saved = activityUpsertRepository.isSupported()
+                ? upsertOnPlaceIdConflict(activities, destination)
+                : upsertWithPrefetch(activities, destination);
+        // Deferred to commit when called through the proxy; internal refresh calls run without one
+        snapshotStore.invalidateAfterCommit(destinationId);
+        return saved;
+    }
 
+    /**
+     * Native INSERT ... ON CONFLICT (place_id) for everything with a placeId. A place new to the
+     * database that matches an older row by name in this destination updates that row instead,
+     * as the JPA path does.
+     */
+    private List<Activity> upsertOnPlaceIdConflict(List<Activity> activities, Destination destination) {
+        Map<String, Activity> byPlaceId = new LinkedHashMap<>(); // First occurrence wins, as in the JPA path
+        List<Activity> withoutPlaceId = new ArrayList<>();
         for (Activity activity : activities) {
-            try {
-                activity.setDestination(destination);
+            if (activity.getPlaceId() == null) {
+                withoutPlaceId.add(activity);
+            } else {
+                byPlaceId.putIfAbsent(activity.getPlaceId(), activity);
+            }
+        }
 
-                if (activity.getEstimatedCost() != null) {
-                    double adjustedCost = costMultiplierService.applyMultiplier(
-                            activity.getEstimatedCost(), destination.getName());
-                    activity.setEstimatedCost((double) Math.round(adjustedCost));
+        Set<String> knownPlaceIds = byPlaceId.isEmpty()
+                ? Set.of()
+                : new HashSet<>(activityRepository.findExistingPlaceIds(byPlaceId.keySet()));
+        Map<String, Activity> unknownByName = new HashMap<>();
+        for (Activity activity : byPlaceId.values()) {
+            if (!knownPlaceIds.contains(activity.getPlaceId()) && activity.getName() != null) {
+                unknownByName.putIfAbsent(activity.getName().toLowerCase(), activity);
+            }
+        }
+
+        List<Activity> matchedByName = new ArrayList<>();
+        Map<Activity, Activity> unchanged = new LinkedHashMap<>();
+        if (!unknownByName.isEmpty()) {
+            for (Activity existing : activityRepository.findExistingForUpsert(
+                    destination.getId(), Set.of(), unknownByName.keySet())) {
+                Activity incoming = unknownByName.remove(existing.getName().toLowerCase());
+                if (incoming != null) {
+                    byPlaceId.remove(incoming.getPlaceId());
+                    if (hasSameContent(existing, incoming)) {
+                        unchanged.put(existing, incoming);
+                    } else {
+                        updateActivityWithNewData(existing, incoming);
+                        matchedByName.add(existing);
+                    }
                 }
+            }
+        }
+
+        activityUpsertRepository.upsertAll(new ArrayList<>(byPlaceId.values()));
+
+        touchUnchanged(unchanged);
+        List<Activity> savedActivities = new ArrayList<>(activityRepository.saveAll(matchedByName));
+        savedActivities.addAll(unchanged.keySet());
+        if (!withoutPlaceId.isEmpty()) {
+            savedActivities.addAll(upsertWithPrefetch(withoutPlaceId, destination));
+        }
+        if (!byPlaceId.isEmpty()) {
+            savedActivities.addAll(activityRepository.findByPlaceIdIn(byPlaceId.keySet()));
+        }
 
+        logger.info("Upserted {} activities on place_id and updated {} matched by name ({} unchanged) for destination: {} ({})",
+                byPlaceId.size(), matchedByName.size(), unchanged.size(), destination.getName(), destination.getCountry());
+        return savedActivities;
+    }
+
+    private List<Activity> upsertWithPrefetch(List<Activity> activities, Destination destination) {
+        Long destinationId = destination.getId();
+
+        Set<String> placeIds = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (Activity activity : activities) {
+            if (activity.getPlaceId() != null) {
+                placeIds.add(activity.getPlaceId());
+            }
+            if (activity.getName() != null) {
+                names.add(activity.getName().toLowerCase());
+            }
+        }
+
+        Map<String, Activity> existingByPlaceId = new HashMap<>();
+        Map<String, Activity> existingByName = new HashMap<>();
+        if (!placeIds.isEmpty() || !names.isEmpty()) {
+            for (Activity existing : activityRepository.findExistingForUpsert(destinationId, placeIds, names)) {
+                if (existing.getPlaceId() != null) {
+                    existingByPlaceId.putIfAbsent(existing.getPlaceId(), existing);
+                }
+                if (existing.getName() != null && existing.getDestination() != null
+                        && destinationId.equals(existing.getDestination().getId())) {
+                    existingByName.putIfAbsent(existing.getName().toLowerCase(), existing);
+                }
+            }
+        }
+
+        List<Activity> toInsert = new ArrayList<>();
+        Set<Activity> toUpdate = new LinkedHashSet<>();
+        Map<Activity, Activity> unchanged = new LinkedHashMap<>(); // Existing row -> identical incoming data
+        Set<String> processedInBatch = new HashSet<>(); // Prevent within-batch duplicates
+
+        for (Activity activity : activities) {
+            try {
                 // Skip if already processed in this batch
-                if (activity.getPlaceId() != null && processedInBatch.contains(activity.getPlaceId())) {
+                if (activity.getPlaceId() != null && !processedInBatch.add(activity.getPlaceId())) {
                     continue;
                 }
 
-                // Check for existing activity (atomic within transaction)
-                Optional<Activity> existingByPlaceId = activity.getPlaceId() != null
-                        ? activityRepository.findByPlaceId(activity.getPlaceId())
-                        : Optional.empty();
+                // Match by placeId first, then fall back to name within the destination
+                Activity existingActivity = activity.getPlaceId() != null
+                        ? existingByPlaceId.get(activity.getPlaceId())
+                        : null;
+                if (existingActivity == null && activity.getName() != null) {
+                    existingActivity = existingByName.get(activity.getName().toLowerCase());
+                }
 
-                if (existingByPlaceId.isPresent()) {
-                    Activity existingActivity = existingByPlaceId.get();
+                if (existingActivity != null && hasSameContent(existingActivity, activity)) {
+                    unchanged.putIfAbsent(existingActivity, activity);
+                } else if (existingActivity != null) {
                     updateActivityWithNewData(existingActivity, activity);
-                    savedActivities.add(activityRepository.save(existingActivity));
-                    updatedCount++;
+                    toUpdate.add(existingActivity);
                 } else {
-                    // Fallback name check for same destination
-                    Optional<Activity> existingByName = activity.getName() != null
-                            ? activityRepository.findByDestinationIdAndNameIgnoreCase(destinationId, activity.getName())
-                            : Optional.empty();
-
-                    if (existingByName.isPresent()) {
-                        Activity existingActivity = existingByName.get();
-                        updateActivityWithNewData(existingActivity, activity);
-                        savedActivities.add(activityRepository.save(existingActivity));
-                        updatedCount++;
-                    } else {
-                        Activity saved = activityRepository.save(activity);
-                        savedActivities.add(saved);
-                        newCount++;
+                    toInsert.add(activity);
+                    // Later rows with the same name update this one instead of inserting a duplicate
+                    if (activity.getName() != null) {
+                        existingByName.putIfAbsent(activity.getName().toLowerCase(), activity);
                     }
                 }
-
-                // Track processed place IDs
-                if (activity.getPlaceId() != null) {
-                    processedInBatch.add(activity.getPlaceId());
-                }
-
             } catch (Exception e) {
                 logger.error("Error saving activity: {} for destination: {} ({})",
                         activity.getName(), destination.getName(), destination.getCountry(), e);
             }
         }
+        // A row inserted earlier in this batch and then matched again is still just an insert
+        toUpdate.removeAll(toInsert);
+        unchanged.keySet().removeAll(toUpdate);
+
+        touchUnchanged(unchanged);
+        List<Activity> savedActivities = new ArrayList<>(activityRepository.saveAll(toUpdate));
+        savedActivities.addAll(activityRepository.saveAll(toInsert));
+        savedActivities.addAll(unchanged.keySet());
 
-        logger.info("Saved {} new and updated {} existing activities for destination: {} ({})",
-                newCount, updatedCount, destination.getName(), destination.getCountry());
+        logger.info("Saved {} new and updated {} existing activities ({} unchanged) for destination: {} ({})",
+                toInsert.size(), toUpdate.size(), unchanged.size(), destination.getName(), destination.getCountry());
         return savedActivities;
     }
 
+    /**
+     * Copy Places data onto the stored activity. The row is reloaded rather than mutating the
+     * instance passed in, which is usually the one shared by the activityById cache.
+     */
+    @CacheEvict(value = {"activityById", "activityCategories", "catalogStats"}, allEntries = true)
     public Activity enhanceActivityWithPlacesData(Activity existing, Activity placesData) {
+        Activity activity = activityRepository.findById(existing.getId())
+                .orElseThrow(() -> new ActivityNotFoundException(existing.getId()));
+
         if (placesData.getPhotoUrl() != null) {
-            existing.setPhotoUrl(placesData.getPhotoUrl());
+            activity.setPhotoUrl(placesData.getPhotoUrl());
         }
         if (placesData.getRating() != null) {
-            existing.setRating(placesData.getRating());
+            activity.setRating(placesData.getRating());
         }
         if (placesData.getEstimatedCost() != null) {
-            existing.setEstimatedCost(placesData.getEstimatedCost());
+            activity.setEstimatedCost(placesData.getEstimatedCost());
         }
         if (placesData.getCategory() != null) {
-            existing.setCategory(placesData.getCategory());
+            activity.setCategory(placesData.getCategory());
         }
 
-        return activityRepository.save(existing);
+        Activity saved = activityRepository.save(activity);
+        invalidateSnapshot(saved);
+        return saved;
+    }
+
+    private void invalidateSnapshot(Activity activity) {
+        if (activity != null && activity.getDestination() != null) {
+            snapshotStore.invalidateAfterCommit(activity.getDestination().getId());
+        }
     }
 
     @Cacheable(value = "activityCategories")
@@ -315,9 +629,48 @@ public class ActivityService {
         return activityRepository.findDistinctCategories();
     }
 
+    /**
+     * True when the stored row was last written from exactly this Places data. Rows saved
+     * before content hashing existed have no hash and are always rewritten once.
+     */
+    private boolean hasSameContent(Activity existing, Activity incoming) {
+        return existing.getId() != null
+                && existing.getContentHash() != null
+                && existing.getContentHash().equals(incoming.getContentHash());
+    }
+
+    /**
+     * Bump freshness timestamps on unchanged rows with bulk UPDATEs, instead of rewriting every
+     * column (reviews, description, opening hours) through the entity. The entities are left
+     * untouched so the flush does not issue row updates for them.
+     */
+    private void touchUnchanged(Map<Activity, Activity> unchanged) {
+        List<Long> ids = new ArrayList<>();
+        // Details served from the Places response cache keep their original fetch time, so rows are
+        // grouped by it; rounding down to the minute keeps it to a few UPDATEs and never makes a row look fresher
+        Map<LocalDateTime, List<Long>> idsByDetailsFetchedAt = new TreeMap<>();
+        unchanged.forEach((existing, incoming) -> {
+            if (incoming.getDetailsFetchedAt() != null) {
+                idsByDetailsFetchedAt.computeIfAbsent(incoming.getDetailsFetchedAt().truncatedTo(ChronoUnit.MINUTES),
+                        fetchedAt -> new ArrayList<>()).add(existing.getId());
+            } else {
+                ids.add(existing.getId());
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!ids.isEmpty()) {
+            activityRepository.touchUpdatedAt(ids, now);
+        }
+        idsByDetailsFetchedAt.forEach((fetchedAt, group) ->
+                activityRepository.touchDetailsFetchedAt(group, now, fetchedAt));
+    }
+
     private void updateActivityWithNewData(Activity existing, Activity newData) {
-        // Update fields that might have changed
-        if (newData.getDescription() != null) {
+        // Update fields that might have changed; a refresh that skipped Place Details for this
+        // activity carries only text-search data, so never clobber stored details with nulls or the placeholder
+        if (newData.getDescription() != null &&
+                (!newData.getDescription().equals(GooglePlacesService.NO_DESCRIPTION) || existing.getDescription() == null)) {
             existing.setDescription(newData.getDescription());
         }
         if (newData.getRating() != null) {
@@ -332,11 +685,35 @@ public class ActivityService {
         if (newData.getCategory() != null) {
             existing.setCategory(newData.getCategory());
         }
+        if (newData.getUserRatingsTotal() != null) {
+            existing.setUserRatingsTotal(newData.getUserRatingsTotal());
+        }
+        if (newData.getPriceLevel() != null) {
+            existing.setPriceLevel(newData.getPriceLevel());
+        }
+        if (newData.getOpeningHours() != null) {
+            existing.setOpeningHours(newData.getOpeningHours());
+        }
+        if (newData.getReviewsJson() != null) {
+            existing.setReviewsJson(newData.getReviewsJson());
+        }
+        if (newData.getWebsite() != null) {
+            existing.setWebsite(newData.getWebsite());
+        }
+        if (newData.getPhone() != null) {
+            existing.setPhone(newData.getPhone());
+        }
+        if (newData.getDetailsFetchedAt() != null) {
+            existing.setDetailsFetchedAt(newData.getDetailsFetchedAt());
+        }
+        existing.setContentHash(newData.getContentHash());
 
         // Update timestamp for cache freshness tracking
         existing.setUpdatedAt(LocalDateTime.now());
     }
 
+    private enum CatalogFreshness { EMPTY, STALE, FRESH }
+
     public static class CacheStats {
         private final long totalActivities;
         private final long googlePlacesActivities;
@@ -362,14 +739,13 @@ public class ActivityService {
     }
 
     // Helper method for fetching from Google Places (used by other endpoints)
-    private List<Activity> fetchFromGooglePlaces(Long destinationId, String category, String searchTerm) {
+    private List<Activity> fetchFromGooglePlaces(Long destinationId, String category, String searchTerm,
+                                                 boolean forceRefresh) {
         Destination destination = destinationRepository.findById(destinationId)
                 .orElseThrow(() -> new DestinationNotFoundException(destinationId));
 
         String cityName = destination.getName();
         String country = destination.getCountry();
-        Set<String> seenPlaceIds = new HashSet<>();
-        List<Activity> allActivities = new ArrayList<>();
 
         List<String> queries = Arrays.asList(
                 "top attractions in " + cityName + " " + country,
@@ -381,70 +757,46 @@ public class ActivityService {
                 "entertainment in " + cityName + " " + country
         );
 
-        // First, collect all basic activities from text searches
-        for (String query : queries) {
-            List<Activity> results = googlePlacesService.performSingleSearch(query, destination);
+        // First, collect all basic activities from concurrent text searches
+        List<Activity> allActivities = googlePlacesService.searchAllQueries(queries, destination, forceRefresh);
 
-            for (Activity activity : results) {
-                if (activity.getPlaceId() != null && !seenPlaceIds.contains(activity.getPlaceId())) {
-                    allActivities.add(activity);
-                    seenPlaceIds.add(activity.getPlaceId());
-                }
-            }
+        // Then enrich with Place Details, skipping places whose stored details are still fresh unless forced
+        List<Activity> needDetails = forceRefresh ? allActivities : selectActivitiesNeedingDetails(allActivities);
+        placesEnrichmentService.enrichWithPlaceDetails(destination, needDetails, forceRefresh);
+        logger.info("Fetched Place Details for {} new or stale of {} activities for {}",
+                needDetails.size(), allActivities.size(), cityName);
 
-            try { Thread.sleep(200); } catch (InterruptedException e) { break; }
-        }
+        logger.info("Found {} total unique activities for {}", allActivities.size(), cityName);
+        return allActivities;
+    }
 
-        // Then enrich each activity with Place Details for descriptions, hours, etc.
-        logger.info("Enriching {} activities with place details", allActivities.size());
-        for (int i = 0; i < allActivities.size(); i++) {
-            Activity activity = allActivities.get(i);
+    private List<Activity> selectActivitiesNeedingDetails(List<Activity> activities) {
+        Set<String> placeIds = new HashSet<>();
+        for (Activity activity : activities) {
             if (activity.getPlaceId() != null) {
-                try {
-                    logger.info("Enriching activity {}/{}: {}", i + 1, allActivities.size(), activity.getName());
-                    Activity detailedActivity = googlePlacesService.getPlaceDetails(activity.getPlaceId());
-
-                    if (detailedActivity != null) {
-                        // Copy enhanced data
-                        if (detailedActivity.getDescription() != null &&
-                                !detailedActivity.getDescription().equals("No description available.")) {
-                            activity.setDescription(detailedActivity.getDescription());
-                        }
-                        if (detailedActivity.getOpeningHours() != null) {
-                            activity.setOpeningHours(detailedActivity.getOpeningHours());
-                        }
-                        if (detailedActivity.getReviewsJson() != null) {
-                            activity.setReviewsJson(detailedActivity.getReviewsJson());
-                        }
-                        if (detailedActivity.getRating() != null) {
-                            activity.setRating(detailedActivity.getRating());
-                        }
-                        if (detailedActivity.getUserRatingsTotal() != null) {
-                            activity.setUserRatingsTotal(detailedActivity.getUserRatingsTotal());
-                        }
-                        if (detailedActivity.getWebsite() != null) {
-                            activity.setWebsite(detailedActivity.getWebsite());
-                        }
-                        if (detailedActivity.getPhone() != null) {
-                            activity.setPhone(detailedActivity.getPhone());
-                        }
-                        // Apply city-based cost multiplier if price level is available
-                        if (detailedActivity.getPriceLevel() != null) {
-                            activity.setPriceLevel(detailedActivity.getPriceLevel());
-                            double baseCost = googlePlacesService.mapPriceLevelToCost(detailedActivity.getPriceLevel());
-                            double adjustedCost = costMultiplierService.applyMultiplier(baseCost, destination.getName());
-                            activity.setEstimatedCost(adjustedCost);
-                        }
-                    }
+                placeIds.add(activity.getPlaceId());
+            }
+        }
 
-                    Thread.sleep(100); // Rate limiting between place details calls
-                } catch (Exception e) {
-                    logger.warn("Failed to enrich activity {}: {}", activity.getName(), e.getMessage());
+        Map<String, Activity> freshByPlaceId = new HashMap<>();
+        if (!placeIds.isEmpty()) {
+            for (Activity stored : activityRepository.findByPlaceIdIn(placeIds)) {
+                if (placesEnrichmentService.hasFreshDetails(stored)) {
+                    freshByPlaceId.put(stored.getPlaceId(), stored);
                 }
             }
         }
 
-        logger.info("Found {} total unique activities for {}", allActivities.size(), cityName);
-        return allActivities;
+        List<Activity> needDetails = new ArrayList<>();
+        for (Activity activity : activities) {
+            Activity stored = activity.getPlaceId() != null ? freshByPlaceId.get(activity.getPlaceId()) : null;
+            if (stored == null) {
+                needDetails.add(activity);
+            } else {
+                // Hashed with the details it would have been enriched with, so an unchanged place stays unchanged
+                placesEnrichmentService.carryForwardDetails(stored, activity);
+            }
+        }
+        return needDetails;
     }
-}
\ No newline at end of file
+}
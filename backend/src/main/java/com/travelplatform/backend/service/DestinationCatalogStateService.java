@@ -0,0 +1,138 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.entity.DestinationCatalogState;
+import com.travelplatform.backend.entity.DestinationCatalogState.RefreshStatus;
+import com.travelplatform.backend.repository.ActivityRepository;
+import com.travelplatform.backend.repository.DestinationCatalogStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Reads and maintains DestinationCatalogState. Catalog state is bookkeeping: failures to
+ * record it are logged and never fail the refresh that triggered them.
+ */
+@Service
+public class DestinationCatalogStateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DestinationCatalogStateService.class);
+
+    private final DestinationCatalogStateRepository stateRepository;
+    private final ActivityRepository activityRepository;
+    private final Duration failureBackoff;
+    private final Duration maxFailureBackoff;
+
+    public DestinationCatalogStateService(DestinationCatalogStateRepository stateRepository,
+                                          ActivityRepository activityRepository,
+                                          @Value("${activities.refresh.failure-backoff:5m}") Duration failureBackoff,
+                                          @Value("${activities.refresh.max-failure-backoff:6h}") Duration maxFailureBackoff) {
+        this.stateRepository = stateRepository;
+        this.activityRepository = activityRepository;
+        this.failureBackoff = failureBackoff;
+        this.maxFailureBackoff = maxFailureBackoff;
+    }
+
+    /**
+     * Catalog state for a destination. Destinations populated before catalog states existed
+     * get one built from their activities (two counts and a MAX(updated_at)), once.
+     */
+    public DestinationCatalogState getOrInitialize(Long destinationId) {
+        return stateRepository.findById(destinationId).orElseGet(() -> initialize(destinationId));
+    }
+
+    public void markRefreshing(Long destinationId) {
+        update(destinationId, state -> state.setRefreshStatus(RefreshStatus.REFRESHING));
+    }
+
+    /**
+     * Record a successful Places refresh: recount the catalog and bump its version
+     */
+    public void recordRefreshSucceeded(Long destinationId) {
+        long activityCount = activityRepository.countByDestinationId(destinationId);
+        long customActivityCount = activityRepository.countByDestinationIdAndIsCustomTrue(destinationId);
+        update(destinationId, state -> {
+            state.setLastRefreshedAt(LocalDateTime.now());
+            state.setActivityCount(activityCount);
+            state.setCustomActivityCount(customActivityCount);
+            state.setRefreshStatus(RefreshStatus.SUCCEEDED);
+            state.setCatalogVersion(state.getCatalogVersion() + 1);
+            state.setConsecutiveFailures(0);
+        });
+    }
+
+    /**
+     * The stored catalog (if any) is still served and lastRefreshedAt is left alone, so it
+     * stays stale; isBackingOff keeps reads from retrying until the backoff has passed.
+     */
+    public void recordRefreshFailed(Long destinationId) {
+        update(destinationId, state -> {
+            state.setRefreshStatus(RefreshStatus.FAILED);
+            state.setLastFailedAt(LocalDateTime.now());
+            state.setConsecutiveFailures(state.getConsecutiveFailures() + 1);
+        });
+    }
+
+    /**
+     * True while the last refresh failed less than the backoff ago. The backoff doubles with
+     * each consecutive failure, from failure-backoff up to max-failure-backoff.
+     */
+    public boolean isBackingOff(DestinationCatalogState state) {
+        if (state.getRefreshStatus() != RefreshStatus.FAILED || state.getLastFailedAt() == null) {
+            return false;
+        }
+        int doublings = Math.min(Math.max(state.getConsecutiveFailures() - 1, 0), 20);
+        Duration backoff = failureBackoff.multipliedBy(1L << doublings);
+        if (backoff.compareTo(maxFailureBackoff) > 0) {
+            backoff = maxFailureBackoff;
+        }
+        return LocalDateTime.now().isBefore(state.getLastFailedAt().plus(backoff));
+    }
+
+    /**
+     * Recount the catalog after activities were added or removed outside a Places refresh
+     */
+    public void recordActivitiesChanged(Long destinationId) {
+        long activityCount = activityRepository.countByDestinationId(destinationId);
+        long customActivityCount = activityRepository.countByDestinationIdAndIsCustomTrue(destinationId);
+        update(destinationId, state -> {
+            state.setActivityCount(activityCount);
+            state.setCustomActivityCount(customActivityCount);
+        });
+    }
+
+    private DestinationCatalogState initialize(Long destinationId) {
+        DestinationCatalogState state = new DestinationCatalogState(destinationId);
+        long activityCount = activityRepository.countByDestinationId(destinationId);
+        if (activityCount > 0) {
+            state.setActivityCount(activityCount);
+            state.setCustomActivityCount(activityRepository.countByDestinationIdAndIsCustomTrue(destinationId));
+            state.setLastRefreshedAt(activityRepository.findLatestUpdatedAt(destinationId));
+            state.setRefreshStatus(RefreshStatus.SUCCEEDED);
+            state.setCatalogVersion(1);
+        }
+
+        try {
+            return stateRepository.save(state);
+        } catch (DataIntegrityViolationException e) {
+            // Another request initialized it first
+            return stateRepository.findById(destinationId).orElse(state);
+        }
+    }
+
+    private void update(Long destinationId, Consumer<DestinationCatalogState> change) {
+        try {
+            DestinationCatalogState state = stateRepository.findById(destinationId)
+                    .orElseGet(() -> new DestinationCatalogState(destinationId));
+            change.accept(state);
+            stateRepository.save(state);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to record catalog state for destination: {}", destinationId, e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.entity.Activity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight guard for Google Places refreshes. At most one refresh runs per
+ * destination; callers arriving while it is in flight wait on the same result
+ * instead of starting their own.
+ */
+@Component
+public class DestinationRefreshCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DestinationRefreshCoordinator.class);
+
+    private final ConcurrentHashMap<Long, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private final Counter flightCounter;
+    private final Counter coalescedCounter;
+    private final DistributionSummary callersAbsorbed;
+
+    public DestinationRefreshCoordinator(MeterRegistry meterRegistry) {
+        this.flightCounter = Counter.builder("activities.refresh.flights")
+                .description("Destination refreshes actually executed")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("activities.refresh.coalesced")
+                .description("Callers that joined an in-flight refresh instead of starting one")
+                .register(meterRegistry);
+        this.callersAbsorbed = DistributionSummary.builder("activities.refresh.callers_absorbed")
+                .description("Extra callers absorbed by each refresh flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the loader for this destination unless a refresh is already in flight,
+     * in which case wait for and return that refresh's result.
+     */
+    public List<Activity> refresh(Long destinationId, Supplier<List<Activity>> loader) {
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(destinationId, flight);
+
+        if (existing != null) {
+            existing.joiners.incrementAndGet();
+            coalescedCounter.increment();
+            logger.debug("Joining in-flight refresh for destination: {}", destinationId);
+            try {
+                return existing.result.join();
+            } catch (CompletionException e) {
+                // Joiners see the leader's own exception, not the future's wrapper
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        flightCounter.increment();
+        try {
+            List<Activity> activities = loader.get();
+            flight.result.complete(activities);
+            return activities;
+        } catch (Throwable t) {
+            // Errors and sneaky-thrown checked exceptions too, or joiners would wait forever
+            flight.result.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(destinationId, flight);
+            int joiners = flight.joiners.get();
+            callersAbsorbed.record(joiners);
+            if (joiners > 0) {
+                logger.info("Refresh for destination: {} absorbed {} concurrent callers", destinationId, joiners);
+            }
+        }
+    }
+
+    /**
+     * Queue a refresh on the given executor and return immediately. Does nothing if a
+     * refresh for this destination is already queued or running.
+     */
+    public boolean refreshInBackground(Long destinationId, Supplier<List<Activity>> loader, Executor executor) {
+        if (!queued.add(destinationId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh(destinationId, loader);
+                } catch (RuntimeException e) {
+                    logger.error("Background refresh failed for destination: {}", destinationId, e);
+                } finally {
+                    queued.remove(destinationId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(destinationId);
+            logger.warn("Background refresh queue full, skipping refresh for destination: {}", destinationId);
+            return false;
+        }
+    }
+
+    public boolean isRefreshing(Long destinationId) {
+        return inFlight.containsKey(destinationId) || queued.contains(destinationId);
+    }
+
+    private static class Flight {
+        private final CompletableFuture<List<Activity>> result = new CompletableFuture<>();
+        private final AtomicInteger joiners = new AtomicInteger();
+    }
+}
@@ -1,6 +1,10 @@
 package com.travelplatform.backend.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.InputCoercionException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.travelplatform.backend.entity.Activity;
 import com.travelplatform.backend.entity.Destination;
@@ -10,13 +14,22 @@ import com.travelplatform.backend.util.ActivityDurationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
 @Service
 public class GooglePlacesService {
@@ -31,31 +44,48 @@ public class GooglePlacesService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final PlacesRateLimiter rateLimiter;
+    private final Executor placesExecutor;
+    private final PlacesResponseCache responseCache;
 
     private static final String PLACES_API_BASE_URL = "https://maps.googleapis.com/maps/api/place";
     private static final String TEXT_SEARCH_ENDPOINT = "/textsearch/json";
     private static final String PLACE_DETAILS_ENDPOINT = "/details/json";
+    private static final String PLACE_DETAILS_FIELDS = "name,formatted_address,rating,price_level,photos,opening_hours,website,reviews,types,geometry,formatted_phone_number,international_phone_number,editorial_summary,user_ratings_total";
+
+    // Text-search results without an editorial summary get this placeholder description
+    public static final String NO_DESCRIPTION = "No description available.";
 
     @Value("${app.base-url}")
     private String baseUrl;
 
     @Autowired
-    public GooglePlacesService(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public GooglePlacesService(RestTemplate restTemplate, ObjectMapper objectMapper, PlacesRateLimiter rateLimiter,
+                               @Qualifier("placesExecutor") Executor placesExecutor,
+                               PlacesResponseCache responseCache) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.placesExecutor = placesExecutor;
+        this.responseCache = responseCache;
     }
 
     /**
      * Search for activities/attractions for a specific destination
      */
     public List<Activity> searchActivitiesForDestination(Long destinationId, String type) {
+        return searchActivitiesForDestination(destinationId, type, false);
+    }
+
+    /**
+     * Same as above; bypassResponseCache skips cached responses (forced refreshes) but still stores the new ones
+     */
+    public List<Activity> searchActivitiesForDestination(Long destinationId, String type, boolean bypassResponseCache) {
         Destination destination = destinationRepository.findById(destinationId)
                 .orElseThrow(() -> new DestinationNotFoundException(destinationId));
 
         String cityName = destination.getName();
         String country = destination.getCountry();
-        Set<String> seenPlaceIds = new HashSet<>();
-        List<Activity> allActivities = new ArrayList<>();
 
         // 4 targeted searches to get ~100 total diverse results
         List<String> queries = Arrays.asList(
@@ -65,60 +95,124 @@ public class GooglePlacesService {
                 "popular parks and outdoor activities in " + cityName + " " + country
         );
 
-        for (String query : queries) {
-            List<Activity> results = performSingleSearch(query, destination);
-
-            // Deduplicate by placeId
-            for (Activity activity : results) {
-                if (activity.getPlaceId() != null && !seenPlaceIds.contains(activity.getPlaceId())) {
-                    allActivities.add(activity);
-                    seenPlaceIds.add(activity.getPlaceId());
-                }
-            }
-
-            try { Thread.sleep(200); } catch (InterruptedException e) { break; }
-        }
+        List<Activity> allActivities = searchAllQueries(queries, destination, bypassResponseCache);
 
         logger.info("Found {} total unique activities for {}", allActivities.size(), cityName);
         return allActivities;
     }
 
+    /**
+     * Run text searches concurrently on the places pool and merge the results,
+     * deduplicated by placeId as each search returns. Call rate is bounded by the
+     * shared rate limiter, so the search phase costs roughly one round trip.
+     */
+    public List<Activity> searchAllQueries(List<String> queries, Destination destination) {
+        return searchAllQueries(queries, destination, false);
+    }
+
+    public List<Activity> searchAllQueries(List<String> queries, Destination destination, boolean bypassResponseCache) {
+        Set<String> seenPlaceIds = ConcurrentHashMap.newKeySet();
+        Queue<Activity> merged = new ConcurrentLinkedQueue<>();
+
+        CompletableFuture<?>[] searches = queries.stream()
+                .map(query -> CompletableFuture.runAsync(() -> {
+                    for (Activity activity : performSingleSearch(query, destination, bypassResponseCache)) {
+                        if (activity.getPlaceId() != null && seenPlaceIds.add(activity.getPlaceId())) {
+                            merged.add(activity);
+                        }
+                    }
+                }, placesExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(searches).join();
+        return new ArrayList<>(merged);
+    }
+
     /**
      * Get detailed information about a specific place
      */
     public Activity getPlaceDetails(String placeId) {
+        return getPlaceDetails(placeId, false);
+    }
+
+    /**
+     * Same as above; bypassResponseCache goes to Google even when a cached response is still
+     * within its TTL (explicit refreshes). Replay mode never calls Google, so it always reads the cache.
+     */
+    public Activity getPlaceDetails(String placeId, boolean bypassResponseCache) {
         try {
             String url = UriComponentsBuilder.fromHttpUrl(PLACES_API_BASE_URL + PLACE_DETAILS_ENDPOINT)
                     .queryParam("place_id", placeId)
                     .queryParam("key", apiKey)
-                    .queryParam("fields", "name,formatted_address,rating,price_level,photos,opening_hours,website,reviews,types,geometry,formatted_phone_number,international_phone_number,editorial_summary,user_ratings_total")
+                    .queryParam("fields", PLACE_DETAILS_FIELDS)
+                    .queryParam("language", "en")
                     .build()
                     .toUriString();
+            String cacheKey = detailsCacheKey(placeId);
+
+            PlacesResponseCache.CachedResponse cached = bypassResponseCache && !responseCache.isReplay()
+                    ? null
+                    : responseCache.getEntry(PlacesResponseCache.Endpoint.DETAILS, cacheKey).orElse(null);
+            if (cached != null) {
+                // Stamped with when Google answered, not now, so details freshness does not restart on a cache hit
+                Activity details = parsePlaceDetailsFromResponse(cached.body());
+                if (details != null) {
+                    details.setDetailsFetchedAt(LocalDateTime.ofInstant(cached.storedAt(), ZoneId.systemDefault()));
+                }
+                return details;
+            }
+            if (responseCache.isReplay()) {
+                logger.debug("Replay mode, no cached details for place: {}", placeId);
+                return null;
+            }
 
             logger.info("Getting details for place: {}", placeId);
+            rateLimiter.acquire();
             String response = restTemplate.getForObject(url, String.class);
 
-            return parsePlaceDetailsFromResponse(response);
+            Activity details = parsePlaceDetailsFromResponse(response);
+            if (details != null) {
+                details.setDetailsFetchedAt(LocalDateTime.now());
+                responseCache.put(PlacesResponseCache.Endpoint.DETAILS, cacheKey, response);
+            }
+            return details;
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for Places rate limit, placeId: {}", placeId);
+            return null;
         } catch (Exception e) {
             logger.error("Error getting place details for placeId: {}", placeId, e);
             return null;
         }
     }
 
-    private List<Activity> parseActivitiesFromResponse(String response) {
+    List<Activity> parseActivitiesFromResponse(String response) {
         List<Activity> activities = new ArrayList<>();
 
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode results = root.get("results");
-
-            if (results != null && results.isArray()) {
-                for (JsonNode result : results) {
-                    Activity activity = parseActivityFromJson(result);
-                    if (activity != null) {
-                        activities.add(activity);
+        try (JsonParser parser = objectMapper.getFactory().createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return activities;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    JsonStreamContext results = parser.getParsingContext();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        try {
+                            Activity activity = readPlace(parser);
+                            if (activity != null) {
+                                activities.add(activity);
+                            }
+                        } catch (InputCoercionException | RuntimeException e) {
+                            // One bad value (e.g. an out-of-range number) only costs that place
+                            logger.warn("Skipping malformed place in search response: {}", e.getMessage());
+                            skipRestOfPlace(parser, results);
+                        }
                     }
+                } else {
+                    parser.skipChildren();
                 }
             }
 
@@ -129,14 +223,22 @@ public class GooglePlacesService {
         return activities;
     }
 
-    private Activity parsePlaceDetailsFromResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode result = root.get("result");
-
-            if (result != null) {
-                return parseActivityFromJson(result);
+    Activity parsePlaceDetailsFromResponse(String response) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
             }
+            Activity activity = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("result".equals(field) && value == JsonToken.START_OBJECT) {
+                    activity = readPlace(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return activity;
 
         } catch (Exception e) {
             logger.error("Error parsing place details from response", e);
@@ -145,139 +247,223 @@ public class GooglePlacesService {
         return null;
     }
 
-    private Activity parseActivityFromJson(JsonNode json) {
-        try {
-            Activity activity = new Activity();
-
-            if (json.has("name")) {
-                logger.info("=== FIELDS FOR: {} ===", json.get("name").asText());
-                json.fieldNames().forEachRemaining(field -> {
-                    logger.info("  - {}: {}", field, json.get(field));
-                });
+    /**
+     * Decode one place object straight from the token stream. The parser must be
+     * positioned on the place's START_OBJECT and is left on its END_OBJECT.
+     */
+    private Activity readPlace(JsonParser parser) throws IOException {
+        PlaceFields place = new PlaceFields();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
             }
-
-            String name = json.has("name") ? json.get("name").asText() : null;
-            if (name == null || name.trim().isEmpty()) {
-                logger.warn("Skipping activity with null/empty name: {}", json);
-                return null; // Skip this activity
+            switch (field) {
+                case "name" -> place.name = readText(parser);
+                case "place_id" -> place.placeId = readText(parser);
+                case "rating" -> place.rating = value.isNumeric() ? parser.getDoubleValue() : null;
+                case "user_ratings_total" -> place.userRatingsTotal = value.isNumeric() ? parser.getIntValue() : null;
+                case "price_level" -> place.priceLevel = value.isNumeric() ? parser.getIntValue() : null;
+                case "types" -> readTypes(parser, place.types);
+                case "editorial_summary" -> place.overview = readNestedText(parser, "overview");
+                case "photos" -> place.photoReference = readFirstPhotoReference(parser);
+                case "geometry" -> readGeometry(parser, place);
+                case "formatted_address" -> place.address = readText(parser);
+                case "opening_hours" -> place.weekdayText = readNestedRaw(parser, "weekday_text");
+                case "reviews" -> place.reviewsJson = value == JsonToken.START_ARRAY ? copyRaw(parser) : skip(parser);
+                case "website" -> place.website = readText(parser);
+                case "formatted_phone_number" -> place.formattedPhone = readText(parser);
+                case "international_phone_number" -> place.internationalPhone = readText(parser);
+                default -> parser.skipChildren();
             }
+        }
 
-            activity.setName(name);
-
-            String description = null;
-
-            if (json.has("editorial_summary") && json.get("editorial_summary").has("overview")) {
-                description = json.get("editorial_summary").get("overview").asText();
-            }
+        return toActivity(place);
+    }
 
-            else {
-                description = "No description available.";
+    // Advances to the END_OBJECT of the place being read, wherever inside it the parser stopped
+    private void skipRestOfPlace(JsonParser parser, JsonStreamContext results) throws IOException {
+        while (parser.getParsingContext() != results) {
+            if (parser.nextToken() == null) {
+                return;
             }
-            activity.setDescription(description);
+        }
+    }
 
-            activity.setPlaceId(json.has("place_id") ? json.get("place_id").asText() : null);
+    private Activity toActivity(PlaceFields place) {
+        if (place.name == null || place.name.trim().isEmpty()) {
+            logger.warn("Skipping activity with null/empty name, placeId: {}", place.placeId);
+            return null; // Skip this activity
+        }
 
-            // Rating (keep as BigDecimal to match entity)
-            if (json.has("rating")) {
-                double googleRating = json.get("rating").asDouble();
-                activity.setRating(BigDecimal.valueOf(googleRating));
-            }
+        Activity activity = new Activity();
+        activity.setName(place.name);
+        activity.setDescription(place.overview != null ? place.overview : NO_DESCRIPTION);
+        activity.setPlaceId(place.placeId);
 
-            if (json.has("user_ratings_total") && !json.get("user_ratings_total").isNull()) {
-                activity.setUserRatingsTotal(json.get("user_ratings_total").asInt());
-            } //added null safety
+        // Rating (keep as BigDecimal to match entity)
+        if (place.rating != null) {
+            activity.setRating(BigDecimal.valueOf(place.rating));
+        }
+        activity.setUserRatingsTotal(place.userRatingsTotal);
+
+        // Set duration using the first/primary raw type before normalization
+        String primaryRawType = place.types.isEmpty() ? "custom" : place.types.get(0);
+        activity.setDurationMinutes(ActivityDurationUtils.getDefaultDuration(primaryRawType));
+        activity.setEstimatedDuration(ActivityDurationUtils.getDefaultDuration(primaryRawType));
+
+        // Then normalize category for display
+        String category = inferCategoryFromTypes(place.types);
+        activity.setCategory(category);
+
+        // Price level and estimated cost
+        if (place.priceLevel != null) {
+            activity.setPriceLevel(place.priceLevel);
+            activity.setEstimatedCost(mapPriceLevelToCost(place.priceLevel));
+        } else {
+            // Use NYC baseline category defaults when Google doesn't provide price_level
+            activity.setEstimatedCost(getDefaultCostByCategory(category));
+        }
 
-            // Get raw Google types first
-            List<String> rawTypes = new ArrayList<>();
-            if (json.has("types") && json.get("types").isArray()) {
-                for (JsonNode type : json.get("types")) {
-                    rawTypes.add(type.asText());
-                }
-            }
+        if (place.photoReference != null) {
+            activity.setPhotoUrl(baseUrl + "/api/activities/photo/" + place.photoReference);
+        }
+        if (place.lat != null) {
+            activity.setLatitude(BigDecimal.valueOf(place.lat));
+        }
+        if (place.lng != null) {
+            activity.setLongitude(BigDecimal.valueOf(place.lng));
+        }
 
-// Set duration using the first/primary raw type before normalization
-            String primaryRawType = rawTypes.isEmpty() ? "custom" : rawTypes.get(0);
-            activity.setDurationMinutes(ActivityDurationUtils.getDefaultDuration(primaryRawType));
-            activity.setEstimatedDuration(ActivityDurationUtils.getDefaultDuration(primaryRawType));
+        activity.setAddress(place.address);
+        activity.setOpeningHours(place.weekdayText);
+        // Reviews are stored as the raw JSON array
+        activity.setReviewsJson(place.reviewsJson);
+        activity.setWebsite(place.website);
+        activity.setPhone(place.formattedPhone != null ? place.formattedPhone : place.internationalPhone);
 
-// Then normalize category for display
-            String category = "Other";
-            if (json.has("types") && json.get("types").isArray()) {
-                category = inferCategoryFromTypes(json.get("types"));
-            }
-            activity.setCategory(category);
-
-            // Price level and estimated cost
-            if (json.has("price_level")) {
-                int priceLevel = json.get("price_level").asInt();
-                activity.setPriceLevel(priceLevel);
-                double cost = mapPriceLevelToCost(priceLevel);
-                activity.setEstimatedCost(cost);
-            } else {
-                // Use NYC baseline category defaults when Google doesn't provide price_level
-                double nycBaseCost = getDefaultCostByCategory(category);
-                activity.setEstimatedCost(nycBaseCost);
-            }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Parsed place {} ({}), reviews: {}", place.name, place.placeId, place.reviewsJson != null);
+        }
+        return activity;
+    }
 
-            // Photo URL (get first photo if available)
-            if (json.has("photos") && json.get("photos").isArray() && !json.get("photos").isEmpty()) {
-                String photoReference = json.get("photos").get(0).get("photo_reference").asText();
-                activity.setPhotoUrl(baseUrl + "/api/activities/photo/" + photoReference);
-            }
+    private String readText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
 
-            // Set coordinates if available
-            if (json.has("geometry") && json.get("geometry").has("location")) {
-                JsonNode location = json.get("geometry").get("location");
-                if (location.has("lat")) {
-                    activity.setLatitude(BigDecimal.valueOf(location.get("lat").asDouble()));
-                }
-                if (location.has("lng")) {
-                    activity.setLongitude(BigDecimal.valueOf(location.get("lng").asDouble()));
-                }
+    private void readTypes(JsonParser parser, List<String> types) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String type = readText(parser);
+            if (type != null) {
+                types.add(type);
             }
+        }
+    }
 
-            // Set address from formatted_address
-            if (json.has("formatted_address")) {
-                activity.setAddress(json.get("formatted_address").asText());
+    // Reads {"<field>": "text", ...} and returns the text, skipping everything else
+    private String readNestedText(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (field.equals(name) && parser.currentToken() != JsonToken.VALUE_NULL) {
+                text = readText(parser);
+            } else {
+                parser.skipChildren();
             }
+        }
+        return text;
+    }
 
-            // Set opening hours if available
-            if (json.has("opening_hours")) {
-                JsonNode hours = json.get("opening_hours");
-                if (hours.has("weekday_text")) {
-                    activity.setOpeningHours(hours.get("weekday_text").toString());
-                }
+    // Reads {"<field>": <any JSON>, ...} and returns that value re-serialized as compact JSON
+    private String readNestedRaw(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String raw = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (field.equals(name)) {
+                raw = copyRaw(parser);
+            } else {
+                parser.skipChildren();
             }
+        }
+        return raw;
+    }
 
-            if (json.has("reviews") && json.get("reviews").isArray()) {
-                JsonNode reviewsNode = json.get("reviews");
-                logger.info("Found {} reviews for {}", reviewsNode.size(), name);
-
-                // Store the entire reviews array as JSON string
-                activity.setReviewsJson(reviewsNode.toString());
+    private String readFirstPhotoReference(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String reference = null;
+        boolean first = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (first && parser.currentToken() == JsonToken.START_OBJECT) {
+                reference = readNestedText(parser, "photo_reference");
             } else {
-                logger.info("No reviews found for {}", name);
-                activity.setReviewsJson(null);
+                parser.skipChildren();
             }
+            first = false;
+        }
+        return reference;
+    }
 
-            // Set website if available
-            if (json.has("website")) {
-                activity.setWebsite(json.get("website").asText());
+    private void readGeometry(JsonParser parser, PlaceFields place) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (!"location".equals(name) || parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
             }
-
-            // Set phone if available
-            if (json.has("formatted_phone_number")) {
-                activity.setPhone(json.get("formatted_phone_number").asText());
-            } else if (json.has("international_phone_number")) {
-                activity.setPhone(json.get("international_phone_number").asText());
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String coordinate = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("lat".equals(coordinate) && value.isNumeric()) {
+                    place.lat = parser.getDoubleValue();
+                } else if ("lng".equals(coordinate) && value.isNumeric()) {
+                    place.lng = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
             }
+        }
+    }
 
-            return activity;
-
-        } catch (Exception e) {
-            logger.error("Error parsing activity from JSON", e);
-            return null;
+    private String copyRaw(JsonParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
         }
+        return writer.toString();
+    }
+
+    private String skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
     }
 
     public double mapPriceLevelToCost(int priceLevel) {
@@ -305,13 +491,8 @@ public class GooglePlacesService {
                 .toUriString();
     }
 
-    private String inferCategoryFromTypes(JsonNode types) {
+    private String inferCategoryFromTypes(List<String> typeList) {
         // Map Google Place types to concise, user-friendly categories
-        List<String> typeList = new ArrayList<>();
-        for (JsonNode type : types) {
-            typeList.add(type.asText());
-        }
-
         // Check specific types FIRST
         if (typeList.contains("shopping_mall") || typeList.contains("department_store")) return "Shopping";
 
@@ -342,6 +523,10 @@ public class GooglePlacesService {
     }
 
     public List<Activity> performSingleSearch(String query, Destination destination) {
+        return performSingleSearch(query, destination, false);
+    }
+
+    public List<Activity> performSingleSearch(String query, Destination destination, boolean bypassResponseCache) {
         UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(PLACES_API_BASE_URL + TEXT_SEARCH_ENDPOINT)
                 .queryParam("query", query)
                 .queryParam("key", apiKey)
@@ -355,19 +540,51 @@ public class GooglePlacesService {
         }
 
         String url = builder.build().toUriString();
+        String cacheKey = textSearchCacheKey(query, destination);
+
+        String cached = bypassResponseCache && !responseCache.isReplay()
+                ? null
+                : responseCache.get(PlacesResponseCache.Endpoint.TEXT_SEARCH, cacheKey).orElse(null);
+        if (cached != null) {
+            return parseActivitiesFromResponse(cached);
+        }
+        if (responseCache.isReplay()) {
+            logger.debug("Replay mode, no cached text search for query: {}", query);
+            return new ArrayList<>();
+        }
 
-        logger.info("=== GOOGLE PLACES QUERY: {} ===", query);
-        logger.info("=== LOCATION BIAS: {},{} ===", destination.getLatitude(), destination.getLongitude());
+        logger.debug("Places text search: {} (location bias: {},{})",
+                query, destination.getLatitude(), destination.getLongitude());
 
         try {
+            rateLimiter.acquire();
             String response = restTemplate.getForObject(url, String.class);
-            return parseActivitiesFromResponse(response);
+            List<Activity> activities = parseActivitiesFromResponse(response);
+            if (!activities.isEmpty()) {
+                responseCache.put(PlacesResponseCache.Endpoint.TEXT_SEARCH, cacheKey, response);
+            }
+            return activities;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for Places rate limit, query: {}", query);
+            return new ArrayList<>();
         } catch (Exception e) {
             logger.error("Error calling Google Places API for query: {}", query, e);
             return new ArrayList<>(); // Return empty list on API error
         }
     }
 
+    // Same query text (ignoring case and spacing), language and location bias means the same response
+    private String textSearchCacheKey(String query, Destination destination) {
+        String normalizedQuery = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalizedQuery + "|en|" + destination.getLatitude() + "," + destination.getLongitude();
+    }
+
+    // A different language or field mask is a different response for the same place
+    private static String detailsCacheKey(String placeId) {
+        return placeId + "|en|" + PLACE_DETAILS_FIELDS;
+    }
+
     private double getDefaultCostByCategory(String category) {
         // NYC baseline prices (1.0 multiplier)
         return switch (category.toLowerCase()) {
@@ -381,4 +598,23 @@ public class GooglePlacesService {
         };
     }
 
-}
\ No newline at end of file
+    // Raw fields collected while streaming one place object
+    private static class PlaceFields {
+        private String name;
+        private String placeId;
+        private Double rating;
+        private Integer userRatingsTotal;
+        private Integer priceLevel;
+        private final List<String> types = new ArrayList<>();
+        private String overview;
+        private String photoReference;
+        private Double lat;
+        private Double lng;
+        private String address;
+        private String weekdayText;
+        private String reviewsJson;
+        private String website;
+        private String formattedPhone;
+        private String internationalPhone;
+    }
+}
@@ -0,0 +1,395 @@
+package com.travelplatform.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for Google Places photos: a byte-bounded in-memory LRU of hot images
+ * over a directory of downloaded files. A photo reference always resolves to the same
+ * image, so each one is downloaded from Google at most once and its ETag is derived
+ * from the reference alone.
+ *
+ * <p>Google serves the 400px original; the smaller list-view variants are generated
+ * from it when it is first downloaded.
+ *
+ * <p>The directory is bounded too: once it grows past its budget, the photos whose
+ * originals were least recently read from disk are deleted along with their variants.
+ */
+@Service
+public class PhotoCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoCacheService.class);
+
+    // Ascending; the last one is the width requested from Google
+    private static final int[] VARIANT_WIDTHS = {96, 200, 400};
+    private static final int ORIGINAL_WIDTH = VARIANT_WIDTHS[VARIANT_WIDTHS.length - 1];
+
+    // Hex-encoded SHA-256 of the photo reference; every file name starts with it
+    private static final int KEY_LENGTH = 64;
+
+    private final RestTemplate restTemplate;
+    private final GooglePlacesService googlePlacesService;
+    private final Path directory;
+    private final long memoryMaxBytes;
+    private final long diskMaxBytes;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> downloads = new ConcurrentHashMap<>();
+
+    // Approximate bytes on disk, re-measured by every sweep; -1 until the directory has been measured
+    private final AtomicLong diskBytes = new AtomicLong(-1);
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public PhotoCacheService(RestTemplate restTemplate,
+                             GooglePlacesService googlePlacesService,
+                             @Value("${photos.cache.directory:data/photo-cache}") String directory,
+                             @Value("${photos.cache.memory-max-size:32MB}") DataSize memoryMaxSize,
+                             @Value("${photos.cache.disk-max-size:2GB}") DataSize diskMaxSize) {
+        this.restTemplate = restTemplate;
+        this.googlePlacesService = googlePlacesService;
+        this.directory = Path.of(directory);
+        this.memoryMaxBytes = memoryMaxSize.toBytes();
+        this.diskMaxBytes = diskMaxSize.toBytes();
+    }
+
+    /**
+     * Smallest stored variant at least as wide as requested, or the original if none is
+     */
+    public int resolveWidth(int requestedWidth) {
+        for (int width : VARIANT_WIDTHS) {
+            if (width >= requestedWidth) {
+                return width;
+            }
+        }
+        return ORIGINAL_WIDTH;
+    }
+
+    /**
+     * Strong validator for the photo variant; computable without loading it, so 304s cost no I/O
+     */
+    public String etagFor(String photoReference, int requestedWidth) {
+        return "\"" + key(photoReference).substring(0, 32) + "-" + resolveWidth(requestedWidth) + "\"";
+    }
+
+    /**
+     * Return the photo variant from memory or disk, downloading the original from Google on first use
+     */
+    public CachedPhoto getPhoto(String photoReference, int requestedWidth) throws IOException {
+        String key = key(photoReference);
+        int width = resolveWidth(requestedWidth);
+        String variantKey = key + "-" + width;
+
+        byte[] hot = getFromMemory(variantKey);
+        if (hot != null) {
+            return new CachedPhoto(hot, null, hot.length);
+        }
+
+        Path original = directory.resolve(key + ".jpg");
+        try {
+            return readFromDisk(key, width, variantKey);
+        } catch (NoSuchFileException e) {
+            // Never downloaded, or the disk sweep deleted it after we looked: a miss either way
+            download(photoReference, key, original);
+            return readFromDisk(key, width, variantKey);
+        }
+    }
+
+    /**
+     * Disk-backed results hold the file open, so a sweep that deletes it before the response
+     * is written cannot fail the request. NoSuchFileException means the photo is not on disk.
+     */
+    private CachedPhoto readFromDisk(String key, int width, String variantKey) throws IOException {
+        Path original = variantFile(key, ORIGINAL_WIDTH);
+        markUsed(original);
+        Path file = variantFile(key, width);
+        if (!Files.exists(file)) {
+            // Originals cached before variants existed, or a variant lost from disk
+            generateVariants(key, original);
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > memoryMaxBytes / 16) {
+            return new CachedPhoto(null, channel, size);
+        }
+        try (channel) {
+            byte[] bytes = Channels.newInputStream(channel).readAllBytes();
+            putInMemory(variantKey, bytes);
+            return new CachedPhoto(bytes, null, bytes.length);
+        }
+    }
+
+    // Concurrent misses for the same reference share a single download
+    private Path download(String photoReference, String key, Path file) throws IOException {
+        CompletableFuture<Path> download = new CompletableFuture<>();
+        CompletableFuture<Path> existing = downloads.putIfAbsent(key, download);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw new IOException("Photo download failed for reference: " + photoReference, e.getCause());
+            }
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".part");
+            try {
+                restTemplate.execute(googlePlacesService.buildPhotoUrl(photoReference), HttpMethod.GET, null,
+                        response -> Files.copy(response.getBody(), temp, StandardCopyOption.REPLACE_EXISTING));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            generateVariants(key, file);
+            logger.debug("Cached photo {} ({} bytes)", key, Files.size(file));
+            download.complete(file);
+            recordStored(key);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            download.completeExceptionally(e);
+            throw e;
+        } finally {
+            downloads.remove(key, download);
+        }
+    }
+
+    private Path variantFile(String key, int width) {
+        return width == ORIGINAL_WIDTH ? directory.resolve(key + ".jpg") : directory.resolve(key + "-" + width + ".jpg");
+    }
+
+    // Scale down step by step (400 -> 200 -> 96) so each bilinear pass at most halves the image.
+    // Anything ImageIO cannot decode, or already narrow enough, is stored as-is.
+    private void generateVariants(String key, Path original) throws IOException {
+        BufferedImage source = decode(key, original);
+
+        for (int i = VARIANT_WIDTHS.length - 2; i >= 0; i--) {
+            int width = VARIANT_WIDTHS[i];
+            Path variant = variantFile(key, width);
+            Path temp = Files.createTempFile(directory, key, ".part");
+            try {
+                if (source == null || source.getWidth() <= width) {
+                    Files.copy(original, temp, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    source = scaleToWidth(source, width);
+                    ImageIO.write(source, "jpg", temp.toFile());
+                }
+                Files.move(temp, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Unknown formats come back null, but corrupt JPEG data makes ImageIO throw instead. Both have to
+    // fall back to copying, or the stored original would fail variant generation on every request.
+    private static BufferedImage decode(String key, Path original) throws IOException {
+        if (!Files.exists(original)) {
+            throw new NoSuchFileException(original.toString());
+        }
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                logger.debug("Photo {} is not a decodable image, variants will reuse the original", key);
+            }
+            return source;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Photo {} could not be decoded, variants will reuse the original: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    // The original's modification time doubles as its last-used time for the disk sweep
+    private static void markUsed(Path original) throws NoSuchFileException {
+        try {
+            Files.setLastModifiedTime(original, FileTime.from(Instant.now()));
+        } catch (NoSuchFileException e) {
+            throw e;
+        } catch (IOException e) {
+            logger.debug("Could not update last-used time of {}: {}", original, e.getMessage());
+        }
+    }
+
+    private void recordStored(String key) throws IOException {
+        long added = 0;
+        for (int width : VARIANT_WIDTHS) {
+            added += Files.size(variantFile(key, width));
+        }
+        long total = diskBytes.get() < 0 ? -1 : diskBytes.addAndGet(added);
+        if (total < 0 || total > diskMaxBytes) {
+            sweepDisk();
+        }
+    }
+
+    /**
+     * Measure the directory and, if it is over budget, delete the least recently used photos
+     * with all their variants until it is back under 90% of the budget. Only one sweep runs at
+     * a time; downloads that finish meanwhile are picked up by the next one.
+     */
+    void sweepDisk() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Map<String, long[]> photos = new HashMap<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.jpg")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    String key = name.substring(0, Math.min(KEY_LENGTH, name.length()));
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    // {bytes of the original and its variants, last-used time of the original}
+                    long[] photo = photos.computeIfAbsent(key, k -> new long[2]);
+                    photo[0] += attributes.size();
+                    if (name.equals(key + ".jpg")) {
+                        photo[1] = attributes.lastModifiedTime().toMillis();
+                    }
+                }
+            }
+
+            long total = photos.values().stream().mapToLong(photo -> photo[0]).sum();
+            if (total > diskMaxBytes) {
+                long target = diskMaxBytes - diskMaxBytes / 10;
+                List<Map.Entry<String, long[]>> leastRecentFirst = new ArrayList<>(photos.entrySet());
+                leastRecentFirst.sort(Comparator.comparingLong(entry -> entry.getValue()[1]));
+
+                int evicted = 0;
+                for (Map.Entry<String, long[]> photo : leastRecentFirst) {
+                    if (total <= target) {
+                        break;
+                    }
+                    for (int width : VARIANT_WIDTHS) {
+                        Files.deleteIfExists(variantFile(photo.getKey(), width));
+                    }
+                    total -= photo.getValue()[0];
+                    evicted++;
+                }
+                logger.info("Photo cache over {} bytes on disk, evicted {} photos", diskMaxBytes, evicted);
+            }
+            diskBytes.set(total);
+        } catch (IOException e) {
+            logger.warn("Photo cache disk sweep failed: {}", e.getMessage());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static BufferedImage scaleToWidth(BufferedImage source, int width) {
+        int height = Math.max(1, Math.round(source.getHeight() * (float) width / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private synchronized byte[] getFromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void putInMemory(String key, byte[] bytes) {
+        byte[] previous = memory.put(key, bytes);
+        memoryBytes += bytes.length - (previous != null ? previous.length : 0);
+
+        Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+            memoryBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    long getDiskBytes() {
+        return diskBytes.get();
+    }
+
+    private static String key(String photoReference) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(photoReference.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A cached image, held either in memory or as an open file on disk
+     */
+    public static class CachedPhoto {
+        private final byte[] bytes;
+        private final FileChannel channel;
+        private final long length;
+
+        CachedPhoto(byte[] bytes, FileChannel channel, long length) {
+            this.bytes = bytes;
+            this.channel = channel;
+            this.length = length;
+        }
+
+        public long getLength() { return length; }
+
+        public boolean isInMemory() { return bytes != null; }
+
+        /**
+         * Write the image; disk-backed photos are copied from their open file, which is then closed
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            if (bytes != null) {
+                out.write(bytes);
+                return;
+            }
+            try (InputStream in = Channels.newInputStream(channel)) {
+                in.transferTo(out);
+            }
+        }
+    }
+}
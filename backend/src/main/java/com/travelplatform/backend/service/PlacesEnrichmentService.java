@@ -0,0 +1,146 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.entity.Activity;
+import com.travelplatform.backend.entity.Destination;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enriches text-search results with Place Details (descriptions, hours, reviews, ...).
+ * Detail calls run concurrently on the bounded places pool; PlacesRateLimiter inside
+ * GooglePlacesService keeps the combined call rate within the QPS budget.
+ */
+@Service
+public class PlacesEnrichmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlacesEnrichmentService.class);
+
+    private final GooglePlacesService googlePlacesService;
+    private final Executor placesExecutor;
+    private final MeterRegistry meterRegistry;
+    private final long detailsTtlDays;
+
+    public PlacesEnrichmentService(GooglePlacesService googlePlacesService,
+                                   @Qualifier("placesExecutor") Executor placesExecutor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${google.places.details.ttl-days:90}") long detailsTtlDays) {
+        this.googlePlacesService = googlePlacesService;
+        this.placesExecutor = placesExecutor;
+        this.meterRegistry = meterRegistry;
+        this.detailsTtlDays = detailsTtlDays;
+    }
+
+    /**
+     * True if this stored activity's Place Details were fetched within the details TTL
+     */
+    public boolean hasFreshDetails(Activity activity) {
+        return activity.getDetailsFetchedAt() != null &&
+                activity.getDetailsFetchedAt().isAfter(LocalDateTime.now().minusDays(detailsTtlDays));
+    }
+
+    /**
+     * For a place whose details were not refetched: copy the stored details onto the fresh
+     * text-search result, exactly as enrichment would have, so its content hash matches the
+     * stored row instead of flipping between enriched and detail-less content.
+     */
+    public void carryForwardDetails(Activity stored, Activity activity) {
+        copyDetails(stored, activity);
+        activity.setDetailsFetchedAt(stored.getDetailsFetchedAt());
+    }
+
+    /**
+     * Enrich every activity that has a placeId, in place. Failures are logged and the
+     * activity keeps its text-search data. Returns the number of activities enriched.
+     */
+    public int enrichWithPlaceDetails(Destination destination, List<Activity> activities) {
+        return enrichWithPlaceDetails(destination, activities, false);
+    }
+
+    /**
+     * Same as above; bypassResponseCache fetches every detail from Google (forced refreshes)
+     */
+    public int enrichWithPlaceDetails(Destination destination, List<Activity> activities, boolean bypassResponseCache) {
+        long startNanos = System.nanoTime();
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (Activity activity : activities) {
+            if (activity.getPlaceId() != null) {
+                futures.add(CompletableFuture.supplyAsync(() -> enrichActivity(activity, bypassResponseCache), placesExecutor));
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        int enriched = (int) futures.stream().filter(CompletableFuture::join).count();
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        // Untagged: a destination tag would add one meter series per destination; the log line names it
+        Timer.builder("places.enrichment.duration")
+                .description("Wall time to enrich one destination with Place Details")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        logger.info("Enriched {}/{} activities for {} in {} ms",
+                enriched, futures.size(), destination.getName(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        return enriched;
+    }
+
+    private boolean enrichActivity(Activity activity, boolean bypassResponseCache) {
+        try {
+            Activity detailedActivity = googlePlacesService.getPlaceDetails(activity.getPlaceId(), bypassResponseCache);
+            if (detailedActivity == null) {
+                return false;
+            }
+            copyDetails(detailedActivity, activity);
+            // When Google produced these details; older than now if served from the response cache
+            activity.setDetailsFetchedAt(detailedActivity.getDetailsFetchedAt() != null
+                    ? detailedActivity.getDetailsFetchedAt()
+                    : LocalDateTime.now());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to enrich activity {}: {}", activity.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void copyDetails(Activity detailedActivity, Activity activity) {
+        if (detailedActivity.getDescription() != null &&
+                !detailedActivity.getDescription().equals(GooglePlacesService.NO_DESCRIPTION)) {
+            activity.setDescription(detailedActivity.getDescription());
+        }
+        if (detailedActivity.getOpeningHours() != null) {
+            activity.setOpeningHours(detailedActivity.getOpeningHours());
+        }
+        if (detailedActivity.getReviewsJson() != null) {
+            activity.setReviewsJson(detailedActivity.getReviewsJson());
+        }
+        if (detailedActivity.getRating() != null) {
+            activity.setRating(detailedActivity.getRating());
+        }
+        if (detailedActivity.getUserRatingsTotal() != null) {
+            activity.setUserRatingsTotal(detailedActivity.getUserRatingsTotal());
+        }
+        if (detailedActivity.getWebsite() != null) {
+            activity.setWebsite(detailedActivity.getWebsite());
+        }
+        if (detailedActivity.getPhone() != null) {
+            activity.setPhone(detailedActivity.getPhone());
+        }
+        // Base (NYC) cost only, like text-search results; saveActivitiesFromPlaces applies the city multiplier once
+        if (detailedActivity.getPriceLevel() != null) {
+            activity.setPriceLevel(detailedActivity.getPriceLevel());
+            activity.setEstimatedCost(googlePlacesService.mapPriceLevelToCost(detailedActivity.getPriceLevel()));
+        }
+    }
+}
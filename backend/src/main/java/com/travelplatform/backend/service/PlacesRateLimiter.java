@@ -0,0 +1,75 @@
+package com.travelplatform.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by every Google Places call so concurrent refreshes
+ * stay inside the project's QPS budget. Tokens refill continuously at
+ * {@code permitsPerSecond} up to {@code burst}.
+ */
+@Component
+public class PlacesRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    public PlacesRateLimiter(@Value("${google.places.rate-limit.qps:10}") double permitsPerSecond,
+                             @Value("${google.places.rate-limit.burst:10}") int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Places QPS must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.availableTokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Block until a token is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take a token only if one is available right now
+     */
+    public synchronized boolean tryAcquire() {
+        refill(System.nanoTime());
+        if (availableTokens >= 1) {
+            availableTokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    // Claims the next token (possibly going into debt) and returns how long the caller must wait for it
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        refill(now);
+        availableTokens -= 1;
+        if (availableTokens >= 0) {
+            return 0;
+        }
+        return (long) (-availableTokens / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill(long now) {
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        availableTokens = Math.min(burst, availableTokens + elapsedSeconds * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+}
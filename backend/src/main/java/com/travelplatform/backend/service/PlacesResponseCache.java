@@ -0,0 +1,316 @@
+package com.travelplatform.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent cache of raw Google Places responses, keyed by a SHA-256 of the
+ * normalized request. Bodies are gzip-compressed and appended to a single segment
+ * file; an in-memory index (rebuilt by scanning the segment on startup) points at
+ * the latest record for each key. Once overwritten records make up more than half of a
+ * segment over 1MB, the live records are rewritten into a fresh one.
+ *
+ * <p>Modes: {@code off}, {@code read-write} (serve fresh entries, store new responses)
+ * and {@code replay} (serve whatever is stored regardless of age, never call Google).
+ */
+@Component
+public class PlacesResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlacesResponseCache.class);
+
+    private static final String SEGMENT_FILE = "places-responses.seg";
+    private static final int RECORD_MAGIC = 0x504C5243; // "PLRC"
+    private static final int KEY_BYTES = 32;
+    private static final int HEADER_BYTES = 4 + KEY_BYTES + 8 + 4;
+    // Rewrite the segment once more than this share of it is overwritten records, and it is big enough to matter
+    private static final double MAX_DEAD_RATIO = 0.5;
+    private static final long COMPACT_MIN_BYTES = 1024 * 1024;
+
+    public enum Endpoint { TEXT_SEARCH, DETAILS }
+
+    public enum Mode { OFF, READ_WRITE, REPLAY }
+
+    private final Mode mode;
+    private final Path directory;
+    private final Duration textSearchTtl;
+    private final Duration detailsTtl;
+    private final Clock clock;
+
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    private volatile FileChannel segment; // Replaced by compaction; readers that raced with it just miss
+    private long liveBytes;
+
+    @Autowired
+    public PlacesResponseCache(@Value("${google.places.response-cache.mode:read-write}") String mode,
+                               @Value("${google.places.response-cache.directory:data/places-cache}") String directory,
+                               @Value("${google.places.response-cache.ttl.text-search:7d}") Duration textSearchTtl,
+                               @Value("${google.places.response-cache.ttl.details:30d}") Duration detailsTtl) {
+        this(Mode.valueOf(mode.trim().replace('-', '_').toUpperCase(Locale.ROOT)),
+                Path.of(directory), textSearchTtl, detailsTtl, Clock.systemUTC());
+    }
+
+    PlacesResponseCache(Mode mode, Path directory, Duration textSearchTtl, Duration detailsTtl, Clock clock) {
+        this.mode = mode;
+        this.directory = directory;
+        this.textSearchTtl = textSearchTtl;
+        this.detailsTtl = detailsTtl;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            segment = FileChannel.open(directory.resolve(SEGMENT_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            loadIndex();
+            if (needsCompaction()) {
+                compact();
+            }
+            logger.info("Places response cache ({}) opened with {} entries at {}", mode, index.size(), directory);
+        } catch (IOException e) {
+            logger.warn("Places response cache disabled, could not open {}: {}", directory, e.getMessage());
+            segment = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                logger.warn("Error closing Places response cache", e);
+            }
+            segment = null;
+        }
+    }
+
+    public boolean isReplay() {
+        return mode == Mode.REPLAY;
+    }
+
+    /**
+     * Cached body for the request, if present and (outside replay mode) within the endpoint's TTL
+     */
+    public Optional<String> get(Endpoint endpoint, String requestKey) {
+        return getEntry(endpoint, requestKey).map(CachedResponse::body);
+    }
+
+    /**
+     * Same as get, with the time the response was originally fetched from Google
+     */
+    public Optional<CachedResponse> getEntry(Endpoint endpoint, String requestKey) {
+        FileChannel channel = segment;
+        if (channel == null) {
+            return Optional.empty();
+        }
+        IndexEntry entry = index.get(hash(endpoint, requestKey));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (mode != Mode.REPLAY && clock.millis() - entry.storedAtMillis > ttl(endpoint).toMillis()) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer body = ByteBuffer.allocate(entry.length);
+            while (body.hasRemaining()) {
+                if (channel.read(body, entry.bodyOffset + body.position()) < 0) {
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(new CachedResponse(gunzip(body.array()), Instant.ofEpochMilli(entry.storedAtMillis)));
+        } catch (IOException e) {
+            logger.warn("Failed to read cached Places response: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Append a response body to the segment and point the index at it
+     */
+    public void put(Endpoint endpoint, String requestKey, String body) {
+        if (segment == null || mode != Mode.READ_WRITE || body == null) {
+            return;
+        }
+        String key = hash(endpoint, requestKey);
+        byte[] compressed = gzip(body);
+        long storedAt = clock.millis();
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        record.putInt(RECORD_MAGIC)
+                .put(HexFormat.of().parseHex(key))
+                .putLong(storedAt)
+                .putInt(compressed.length)
+                .put(compressed)
+                .flip();
+
+        synchronized (this) {
+            if (segment == null) {
+                return;
+            }
+            IndexEntry previous;
+            try {
+                long offset = segment.size();
+                while (record.hasRemaining()) {
+                    segment.write(record, offset + record.position());
+                }
+                previous = index.put(key, new IndexEntry(offset + HEADER_BYTES, compressed.length, storedAt));
+                liveBytes += HEADER_BYTES + compressed.length;
+                if (previous != null) {
+                    liveBytes -= HEADER_BYTES + previous.length;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to append Places response to cache: {}", e.getMessage());
+                return;
+            }
+            if (previous != null) {
+                compactIfNeeded();
+            }
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private Duration ttl(Endpoint endpoint) {
+        return endpoint == Endpoint.TEXT_SEARCH ? textSearchTtl : detailsTtl;
+    }
+
+    // Scan the segment, keeping the latest record per key; a torn tail from a crash is truncated
+    private void loadIndex() throws IOException {
+        index.clear();
+        liveBytes = 0;
+        long position = 0;
+        long size = segment.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        byte[] keyBytes = new byte[KEY_BYTES];
+
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            while (header.hasRemaining()) {
+                segment.read(header, position + header.position());
+            }
+            header.flip();
+            if (header.getInt() != RECORD_MAGIC) {
+                break;
+            }
+            header.get(keyBytes);
+            long storedAt = header.getLong();
+            int length = header.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            IndexEntry previous = index.put(HexFormat.of().formatHex(keyBytes),
+                    new IndexEntry(position + HEADER_BYTES, length, storedAt));
+            liveBytes += HEADER_BYTES + length;
+            if (previous != null) {
+                liveBytes -= HEADER_BYTES + previous.length;
+            }
+            position += HEADER_BYTES + length;
+        }
+
+        if (position < size) {
+            logger.warn("Truncating {} trailing bytes of damaged Places cache segment", size - position);
+            segment.truncate(position);
+        }
+    }
+
+    private boolean needsCompaction() throws IOException {
+        long size = segment.size();
+        return size > COMPACT_MIN_BYTES && size - liveBytes > size * MAX_DEAD_RATIO;
+    }
+
+    // Overwrites only happen on refreshes, so this runs rarely; a failure leaves the cache disabled
+    private void compactIfNeeded() {
+        try {
+            if (needsCompaction()) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Places response cache disabled, compaction failed: {}", e.getMessage());
+            close();
+        }
+    }
+
+    // Rewrite only the live records into a fresh segment
+    private void compact() throws IOException {
+        Path current = directory.resolve(SEGMENT_FILE);
+        Path compacted = directory.resolve(SEGMENT_FILE + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (IndexEntry entry : index.values()) {
+                long recordStart = entry.bodyOffset - HEADER_BYTES;
+                segment.transferTo(recordStart, HEADER_BYTES + entry.length, out);
+            }
+        }
+        segment.close();
+        Files.move(compacted, current, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        segment = FileChannel.open(current, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        loadIndex();
+        logger.info("Compacted Places response cache to {} bytes", segment.size());
+    }
+
+    private static String hash(Endpoint endpoint, String requestKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((endpoint.name() + '\n' + requestKey).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(String body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length() / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public record CachedResponse(String body, Instant storedAt) {}
+
+    private record IndexEntry(long bodyOffset, int length, long storedAtMillis) {}
+}
@@ -0,0 +1,61 @@
+package com.travelplatform.backend.util;
+
+import com.travelplatform.backend.entity.Activity;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ActivityContentHashUtils {
+
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final String NULL_MARKER = "\u0000";
+
+    /**
+     * SHA-256 over the Places-derived fields of an activity, as received from Google.
+     * Two refreshes that return identical data produce the same hash, so the stored row
+     * can be left alone. Bookkeeping fields (ids, timestamps, destination) are not included.
+     * @param activity Activity built from a Places response
+     * @return 64-character lowercase hex digest
+     */
+    public static String compute(Activity activity) {
+        StringBuilder content = new StringBuilder(512);
+        append(content, activity.getPlaceId());
+        append(content, activity.getName());
+        append(content, activity.getDescription());
+        append(content, activity.getCategory());
+        append(content, activity.getRating());
+        append(content, activity.getPriceLevel());
+        append(content, activity.getEstimatedCost());
+        append(content, activity.getPhotoUrl());
+        append(content, activity.getLatitude());
+        append(content, activity.getLongitude());
+        append(content, activity.getAddress());
+        append(content, activity.getUserRatingsTotal());
+        append(content, activity.getOpeningHours());
+        append(content, activity.getReviewsJson());
+        append(content, activity.getWebsite());
+        append(content, activity.getPhone());
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void append(StringBuilder content, Object value) {
+        if (value == null) {
+            content.append(NULL_MARKER);
+        } else if (value instanceof BigDecimal decimal) {
+            // 4.5 and 4.50 are the same rating
+            content.append(decimal.stripTrailingZeros().toPlainString());
+        } else {
+            content.append(value);
+        }
+        content.append(FIELD_SEPARATOR);
+    }
+}
@@ -0,0 +1,27 @@
+package com.travelplatform.backend.util;
+
+import java.math.BigDecimal;
+
+public class ActivityPopularityUtils {
+
+    /**
+     * Popularity used to order destination feeds: rating weighted by how many people rated it.
+     * Matches the ranking the popularity queries used to compute in ORDER BY.
+     * @param rating Google rating (0-5), may be null
+     * @param userRatingsTotal Number of Google ratings, may be null
+     * @return Score, 0 for unrated places
+     */
+    public static double score(BigDecimal rating, Integer userRatingsTotal) {
+        if (rating == null) {
+            return 0.0;
+        }
+        double value = rating.doubleValue();
+        if (userRatingsTotal != null && userRatingsTotal > 100) {
+            return value * Math.log10(userRatingsTotal) * 10;
+        }
+        if (userRatingsTotal != null && userRatingsTotal > 10) {
+            return value * Math.log10(userRatingsTotal) * 5;
+        }
+        return value * 2;
+    }
+}
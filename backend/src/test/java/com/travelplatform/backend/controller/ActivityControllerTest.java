@@ -4,11 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.travelplatform.backend.config.GlobalExceptionHandler;
+import com.travelplatform.backend.dto.ActivityPageResponse;
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.CostHistogram;
+import com.travelplatform.backend.dto.NearbyActivity;
 import com.travelplatform.backend.entity.Activity;
 import com.travelplatform.backend.entity.Destination;
 import com.travelplatform.backend.exception.ActivityNotFoundException;
+import com.travelplatform.backend.service.ActivityCatalogSnapshot;
 import com.travelplatform.backend.service.ActivityService;
 import com.travelplatform.backend.service.GooglePlacesService;
+import com.travelplatform.backend.service.PhotoCacheService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -20,8 +26,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -45,6 +54,9 @@ class ActivityControllerTest {
     @Mock
     private GooglePlacesService googlePlacesService;
 
+    @Mock
+    private PhotoCacheService photoCacheService;
+
     @InjectMocks
     private ActivityController activityController;
 
@@ -91,8 +103,9 @@ class ActivityControllerTest {
         @Test
         @DisplayName("Should return all activities for destination")
         void shouldReturnAllActivitiesForDestination() throws Exception {
-            List<Activity> allActivities = Arrays.asList(testActivity);
-            when(activityService.getAllActivitiesByDestination(1L)).thenReturn(allActivities);
+            List<ActivitySummary> allActivities = Arrays.asList(ActivitySummary.from(testActivity));
+            when(activityService.getAllActivitiesByDestination(1L, null, ActivityCatalogSnapshot.SortOrder.POPULARITY))
+                    .thenReturn(allActivities);
             when(activityService.getCacheStats(1L)).thenReturn(mockCacheStats);
 
             mockMvc.perform(get("/api/activities/destination/1"))
@@ -104,13 +117,136 @@ class ActivityControllerTest {
                     .andExpect(jsonPath("$.count").value(1))
                     .andExpect(jsonPath("$.source").value("database_cached"));
 
-            verify(activityService).getAllActivitiesByDestination(1L);
+            verify(activityService).getAllActivitiesByDestination(1L, null, ActivityCatalogSnapshot.SortOrder.POPULARITY);
+        }
+
+        @Test
+        @DisplayName("Should pass category and sort through to the catalog snapshot")
+        void shouldFilterByCategoryAndSort() throws Exception {
+            when(activityService.getAllActivitiesByDestination(1L, "museum", ActivityCatalogSnapshot.SortOrder.COST))
+                    .thenReturn(List.of());
+            when(activityService.getCacheStats(1L)).thenReturn(mockCacheStats);
+
+            mockMvc.perform(get("/api/activities/destination/1")
+                            .param("category", "museum")
+                            .param("sort", "cost"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(0));
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown sort order")
+        void shouldRejectUnknownSortOrder() throws Exception {
+            mockMvc.perform(get("/api/activities/destination/1").param("sort", "distance"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should flag stale activities that are being revalidated")
+        void shouldFlagStaleActivitiesBeingRevalidated() throws Exception {
+            ActivityService.CacheStats staleStats = new ActivityService.CacheStats(
+                    1L, 1L, 0L, LocalDateTime.now().minusDays(45), true, 30
+            );
+            when(activityService.getAllActivitiesByDestination(1L, null, ActivityCatalogSnapshot.SortOrder.POPULARITY))
+                    .thenReturn(Arrays.asList(ActivitySummary.from(testActivity)));
+            when(activityService.getCacheStats(1L)).thenReturn(staleStats);
+            when(activityService.isRevalidating(1L)).thenReturn(true);
+
+            mockMvc.perform(get("/api/activities/destination/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(1))
+                    .andExpect(jsonPath("$.source").value("stale_revalidating"));
+        }
+
+        @Test
+        @DisplayName("Should not claim revalidation when no refresh is queued")
+        void shouldFlagStaleActivitiesWithoutRefreshQueued() throws Exception {
+            ActivityService.CacheStats staleStats = new ActivityService.CacheStats(
+                    1L, 1L, 0L, LocalDateTime.now().minusDays(45), true, 30
+            );
+            ActivityPageResponse page = ActivityPageResponse.fromKeyset(List.of(ActivitySummary.from(testActivity)), false, null, 1);
+            when(activityService.getPopularityFeed(1L, "abc", 1)).thenReturn(page);
+            when(activityService.getCacheStats(1L)).thenReturn(staleStats);
+            when(activityService.isRevalidating(1L)).thenReturn(false);
+
+            mockMvc.perform(get("/api/activities/destination/1/feed")
+                            .param("cursor", "abc")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.source").value("database_stale"));
+        }
+
+        @Test
+        @DisplayName("Should return one page of the popularity feed with a cursor")
+        void shouldReturnPopularityFeedPage() throws Exception {
+            ActivityPageResponse page = ActivityPageResponse.fromKeyset(List.of(ActivitySummary.from(testActivity)), true, "next-page", 1);
+            when(activityService.getPopularityFeed(1L, "abc", 1)).thenReturn(page);
+            when(activityService.getCacheStats(1L)).thenReturn(mockCacheStats);
+
+            mockMvc.perform(get("/api/activities/destination/1/feed")
+                            .param("cursor", "abc")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.activities[0].name").value("Eiffel Tower"))
+                    .andExpect(jsonPath("$.hasMore").value(true))
+                    .andExpect(jsonPath("$.nextCursor").value("next-page"))
+                    .andExpect(jsonPath("$.totalCount").value(1))
+                    .andExpect(jsonPath("$.source").value("database_cached"));
+        }
+
+        @Test
+        @DisplayName("Should return nearby activities with distances")
+        void shouldReturnNearbyActivities() throws Exception {
+            when(activityService.getNearbyActivities(48.8584, 2.2945, 1000, "museum", 50))
+                    .thenReturn(List.of(new NearbyActivity(ActivitySummary.from(testActivity), 12.5)));
+
+            mockMvc.perform(get("/api/activities/nearby")
+                            .param("lat", "48.8584")
+                            .param("lng", "2.2945")
+                            .param("category", "museum"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].activity.name").value("Eiffel Tower"))
+                    .andExpect(jsonPath("$[0].distanceMeters").value(12.5));
+        }
+
+        @Test
+        @DisplayName("Should reject nearby queries with invalid coordinates")
+        void shouldRejectInvalidNearbyQuery() throws Exception {
+            when(activityService.getNearbyActivities(120, 2.2945, 1000, null, 50))
+                    .thenThrow(new IllegalArgumentException("Coordinates out of range: 120.0, 2.2945"));
+
+            mockMvc.perform(get("/api/activities/nearby").param("lat", "120").param("lng", "2.2945"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return a page of search results")
+        void shouldReturnSearchResults() throws Exception {
+            ActivityPageResponse page = ActivityPageResponse.fromKeyset(List.of(ActivitySummary.from(testActivity)), false, null, 20);
+            page.setQuery("eiffel");
+            when(activityService.searchActivities(1L, "eiffel", 1, 20)).thenReturn(page);
+
+            mockMvc.perform(get("/api/activities/destination/1/search").param("query", "eiffel"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.activities[0].name").value("Eiffel Tower"))
+                    .andExpect(jsonPath("$.hasMore").value(false))
+                    .andExpect(jsonPath("$.query").value("eiffel"));
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed feed cursor")
+        void shouldRejectMalformedFeedCursor() throws Exception {
+            when(activityService.getPopularityFeed(1L, "garbage", 20))
+                    .thenThrow(new IllegalArgumentException("Invalid cursor: garbage"));
+
+            mockMvc.perform(get("/api/activities/destination/1/feed").param("cursor", "garbage"))
+                    .andExpect(status().isBadRequest());
         }
 
         @Test
         @DisplayName("Should handle service exceptions gracefully")
         void shouldHandleServiceExceptionsGracefully() throws Exception {
-            when(activityService.getAllActivitiesByDestination(1L))
+            when(activityService.getAllActivitiesByDestination(1L, null, ActivityCatalogSnapshot.SortOrder.POPULARITY))
                     .thenThrow(new RuntimeException("Database error"));
 
             mockMvc.perform(get("/api/activities/destination/1"))
@@ -178,7 +314,7 @@ class ActivityControllerTest {
         @Test
         @DisplayName("Should return cached activities when not forcing refresh")
         void shouldReturnCachedActivitiesWhenNotForcingRefresh() throws Exception {
-            List<Activity> cachedActivities = Arrays.asList(testActivity);
+            List<ActivitySummary> cachedActivities = Arrays.asList(ActivitySummary.from(testActivity));
             when(activityService.getAllActivitiesByDestination(1L)).thenReturn(cachedActivities);
 
             mockMvc.perform(get("/api/activities/destination/1/places-search"))
@@ -193,7 +329,7 @@ class ActivityControllerTest {
         @DisplayName("Should force refresh from Google Places when requested")
         void shouldForceRefreshFromGooglePlacesWhenRequested() throws Exception {
             List<Activity> refreshedActivities = Arrays.asList(testActivity);
-            when(googlePlacesService.searchActivitiesForDestination(1L, null)).thenReturn(refreshedActivities);
+            when(googlePlacesService.searchActivitiesForDestination(1L, null, true)).thenReturn(refreshedActivities);
             when(activityService.saveActivitiesFromPlaces(refreshedActivities, 1L)).thenReturn(refreshedActivities);
 
             mockMvc.perform(get("/api/activities/destination/1/places-search")
@@ -201,7 +337,7 @@ class ActivityControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.source").value("google_places"));
 
-            verify(googlePlacesService).searchActivitiesForDestination(1L, null);
+            verify(googlePlacesService).searchActivitiesForDestination(1L, null, true);
             verify(activityService).saveActivitiesFromPlaces(refreshedActivities, 1L);
         }
 
@@ -212,7 +348,7 @@ class ActivityControllerTest {
             enhancedActivity.setRating(BigDecimal.valueOf(4.8));
 
             when(activityService.getActivityById(1L)).thenReturn(Optional.of(testActivity));
-            when(googlePlacesService.getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0")).thenReturn(enhancedActivity);
+            when(googlePlacesService.getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0", true)).thenReturn(enhancedActivity);
             when(activityService.enhanceActivityWithPlacesData(testActivity, enhancedActivity))
                     .thenReturn(enhancedActivity);
 
@@ -220,7 +356,7 @@ class ActivityControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.rating").value(4.8));
 
-            verify(googlePlacesService).getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0");
+            verify(googlePlacesService).getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0", true);
         }
 
         @Test
@@ -317,19 +453,31 @@ class ActivityControllerTest {
         @Test
         @DisplayName("Should return top rated activities")
         void shouldReturnTopRatedActivities() throws Exception {
-            List<Activity> topRated = Arrays.asList(testActivity);
-            when(activityService.getTopRatedActivities(1L)).thenReturn(topRated);
+            List<ActivitySummary> topRated = Arrays.asList(ActivitySummary.from(testActivity));
+            when(activityService.getTopRatedActivities(1L, 0, 10)).thenReturn(topRated);
 
             mockMvc.perform(get("/api/activities/destination/1/top-rated"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$[0].name").value("Eiffel Tower"));
         }
 
+        @Test
+        @DisplayName("Should pass top rated limit and minimum review count through")
+        void shouldPassTopRatedParameters() throws Exception {
+            when(activityService.getTopRatedActivities(1L, 100, 3)).thenReturn(List.of(ActivitySummary.from(testActivity)));
+
+            mockMvc.perform(get("/api/activities/destination/1/top-rated")
+                            .param("minReviews", "100")
+                            .param("limit", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1));
+        }
+
         @Test
         @DisplayName("Should return activities by cost range")
         void shouldReturnActivitiesByCostRange() throws Exception {
-            List<Activity> costRangeActivities = Arrays.asList(testActivity);
-            when(activityService.getActivitiesByCostRange(1L, 1000, 3000)).thenReturn(costRangeActivities);
+            List<ActivitySummary> costRangeActivities = Arrays.asList(ActivitySummary.from(testActivity));
+            when(activityService.getActivitiesByCostRange(1L, 1000.0, 3000.0)).thenReturn(costRangeActivities);
 
             mockMvc.perform(get("/api/activities/destination/1/cost-range")
                             .param("minCost", "1000")
@@ -338,6 +486,20 @@ class ActivityControllerTest {
                     .andExpect(jsonPath("$[0].estimatedCost").value(2000.0));
         }
 
+        @Test
+        @DisplayName("Should return the cost histogram")
+        void shouldReturnCostHistogram() throws Exception {
+            CostHistogram histogram = new CostHistogram(2, 1, 1000.0, 3000.0, 1000.0, 1000.0, 1000.0, 3000.0, 3000.0,
+                    List.of(new CostHistogram.Bucket(1000.0, 2000.0, 1), new CostHistogram.Bucket(2000.0, 3000.0, 1)));
+            when(activityService.getCostHistogram(1L)).thenReturn(histogram);
+
+            mockMvc.perform(get("/api/activities/destination/1/cost-histogram"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.pricedCount").value(2))
+                    .andExpect(jsonPath("$.median").value(1000.0))
+                    .andExpect(jsonPath("$.buckets[1].upperBound").value(3000.0));
+        }
+
         @Test
         @DisplayName("Should return health check status")
         void shouldReturnHealthCheckStatus() throws Exception {
@@ -381,7 +543,7 @@ class ActivityControllerTest {
         @Test
         @DisplayName("Should return smart cached activities with statistics")
         void shouldReturnSmartCachedActivitiesWithStatistics() throws Exception {
-            List<Activity> allActivities = Arrays.asList(testActivity);
+            List<ActivitySummary> allActivities = Arrays.asList(ActivitySummary.from(testActivity));
             when(activityService.getAllActivitiesByDestination(1L)).thenReturn(allActivities);
             when(activityService.getCacheStats(1L)).thenReturn(mockCacheStats);
 
@@ -393,4 +555,68 @@ class ActivityControllerTest {
                     .andExpect(jsonPath("$.cacheStats.isCacheStale").value(false));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Photo Proxy")
+    class PhotoProxy {
+
+        @Test
+        @DisplayName("Should stream cached photo with caching headers")
+        void shouldStreamCachedPhotoWithCachingHeaders() throws Exception {
+            byte[] image = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+            PhotoCacheService.CachedPhoto photo = mock(PhotoCacheService.CachedPhoto.class);
+            when(photo.getLength()).thenReturn((long) image.length);
+            doAnswer(invocation -> {
+                invocation.<OutputStream>getArgument(0).write(image);
+                return null;
+            }).when(photo).writeTo(any(OutputStream.class));
+            when(photoCacheService.etagFor("photo-ref", 400)).thenReturn("\"abc123\"");
+            when(photoCacheService.getPhoto("photo-ref", 400)).thenReturn(photo);
+
+            MvcResult result = mockMvc.perform(get("/api/activities/photo/photo-ref"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                    .andExpect(header().string("ETag", "\"abc123\""))
+                    .andExpect(header().string("Cache-Control", "max-age=2592000, public"))
+                    .andExpect(content().bytes(image));
+        }
+
+        @Test
+        @DisplayName("Should answer 304 when the ETag matches without loading the photo")
+        void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+            when(photoCacheService.etagFor("photo-ref", 400)).thenReturn("\"abc123\"");
+
+            mockMvc.perform(get("/api/activities/photo/photo-ref").header("If-None-Match", "\"abc123\""))
+                    .andExpect(status().isNotModified());
+
+            verify(photoCacheService, never()).getPhoto(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should pass the requested width through to the cache")
+        void shouldRequestPhotoVariantByWidth() throws Exception {
+            PhotoCacheService.CachedPhoto photo = mock(PhotoCacheService.CachedPhoto.class);
+            when(photoCacheService.etagFor("photo-ref", 96)).thenReturn("\"abc123-96\"");
+            when(photoCacheService.getPhoto("photo-ref", 96)).thenReturn(photo);
+
+            mockMvc.perform(get("/api/activities/photo/photo-ref").param("w", "96"))
+                    .andExpect(request().asyncStarted());
+
+            verify(photoCacheService).getPhoto("photo-ref", 96);
+        }
+
+        @Test
+        @DisplayName("Should return 404 when the photo cannot be fetched")
+        void shouldReturnNotFoundWhenPhotoUnavailable() throws Exception {
+            when(photoCacheService.etagFor("missing", 400)).thenReturn("\"def456\"");
+            when(photoCacheService.getPhoto("missing", 400)).thenThrow(new IOException("Google returned 400"));
+
+            mockMvc.perform(get("/api/activities/photo/missing"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.travelplatform.backend.repository;
 
+import com.travelplatform.backend.dto.ActivitySummary;
 import com.travelplatform.backend.entity.Activity;
 import com.travelplatform.backend.entity.Destination;
+import com.travelplatform.backend.util.ActivityPopularityUtils;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -28,6 +39,9 @@ public class ActivityRepositoryTest {
     @Autowired
     private DestinationRepository destinationRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     public void testFindByDestinationId() {
         Destination paris = new Destination();
@@ -122,57 +136,60 @@ public class ActivityRepositoryTest {
     }
 
     @Test
-    public void testFindTopRatedByDestination() {
+    public void testFindSummariesByDestinationId() {
         Destination paris = new Destination();
         paris.setName("Paris");
         paris.setCountry("France");
         paris = destinationRepository.save(paris);
 
-        Activity lowRated = new Activity("Low Rated Place", "restaurant", paris);
-        lowRated.setRating(new BigDecimal("3.2"));
-
-        Activity highRated = new Activity("High Rated Place", "restaurant", paris);
-        highRated.setRating(new BigDecimal("4.8"));
-
-        Activity noRating = new Activity("No Rating Place", "restaurant", paris);
-
-        activityRepository.save(lowRated);
-        activityRepository.save(highRated);
-        activityRepository.save(noRating);
+        Activity louvre = Activity.createFromGooglePlaces("louvre-id", "Louvre", "museum", paris);
+        louvre.setDescription("A".repeat(1000));
+        louvre.setRating(new BigDecimal("4.7"));
+        louvre.setReviewsJson("[{\"text\":\"Huge\"}]");
+        activityRepository.save(louvre);
 
-        List<Activity> topRated = activityRepository.findTopRatedByDestination(paris.getId());
+        List<ActivitySummary> summaries = activityRepository.findSummariesByDestinationId(paris.getId());
 
-        assertThat(topRated).hasSize(2); // Only activities with ratings
-        assertThat(topRated.get(0).getName()).isEqualTo("High Rated Place"); // Highest first
-        assertThat(topRated.get(1).getName()).isEqualTo("Low Rated Place");
+        assertThat(summaries).hasSize(1);
+        ActivitySummary summary = summaries.get(0);
+        assertThat(summary.getId()).isEqualTo(louvre.getId());
+        assertThat(summary.getPlaceId()).isEqualTo("louvre-id");
+        assertThat(summary.getRating()).isEqualByComparingTo("4.7");
+        assertThat(summary.getDescription()).hasSize(ActivitySummary.DESCRIPTION_PREVIEW_LENGTH);
     }
 
     @Test
-    public void testFindByDestinationAndCostRange() {
+    public void testFindSummariesByDestinationIdIn() {
         Destination paris = new Destination();
         paris.setName("Paris");
         paris.setCountry("France");
         paris = destinationRepository.save(paris);
-
-        Activity free = new Activity("Free Museum", "museum", paris);
-        free.setEstimatedCost(0.0);
-
-        Activity cheap = new Activity("Cheap Cafe", "restaurant", paris);
-        cheap.setEstimatedCost(1500.0); // 15 euros
-
-        Activity expensive = new Activity("Expensive Restaurant", "restaurant", paris);
-        expensive.setEstimatedCost(8000.0); // 80 euros
-
-        activityRepository.save(free);
-        activityRepository.save(cheap);
-        activityRepository.save(expensive);
-
-        List<Activity> budgetActivities = activityRepository.findByDestinationAndCostRange(
-                paris.getId(), 0, 2000); // 0-20 euros
-
-        assertThat(budgetActivities).hasSize(2);
-        assertThat(budgetActivities).extracting(Activity::getName)
-                .containsExactlyInAnyOrder("Free Museum", "Cheap Cafe");
+        Destination rome = new Destination();
+        rome.setName("Rome");
+        rome.setCountry("Italy");
+        rome = destinationRepository.save(rome);
+        Destination lisbon = new Destination();
+        lisbon.setName("Lisbon");
+        lisbon.setCountry("Portugal");
+        lisbon = destinationRepository.save(lisbon);
+
+        activityRepository.save(Activity.createFromGooglePlaces("louvre-id", "Louvre", "museum", paris));
+        activityRepository.save(Activity.createFromGooglePlaces("colosseum-id", "Colosseum", "landmark", rome));
+        activityRepository.save(Activity.createFromGooglePlaces("belem-id", "Belem Tower", "landmark", lisbon));
+
+        Long parisId = paris.getId();
+        Long romeId = rome.getId();
+        List<Object[]> rows = activityRepository.findSummariesByDestinationIdIn(List.of(parisId, romeId));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows).anySatisfy(row -> {
+            assertThat(row[0]).isEqualTo(parisId);
+            assertThat(((ActivitySummary) row[1]).getPlaceId()).isEqualTo("louvre-id");
+        });
+        assertThat(rows).anySatisfy(row -> {
+            assertThat(row[0]).isEqualTo(romeId);
+            assertThat(((ActivitySummary) row[1]).getPlaceId()).isEqualTo("colosseum-id");
+        });
     }
 
     @Test
@@ -190,20 +207,28 @@ public class ActivityRepositoryTest {
 
         Activity louvre = new Activity("Louvre Museum", "museum", paris);
         louvre.setDescription("World famous art museum");
+        louvre.setRating(new BigDecimal("4.8"));
+        louvre.setUserRatingsTotal(5000);
 
         activityRepository.save(eiffelTower);
         activityRepository.save(arcDeTriomphe);
         activityRepository.save(louvre);
 
-        List<Activity> towerResults = activityRepository.searchByDestinationAndTerm(paris.getId(), "tower");
-        List<Activity> famousResults = activityRepository.searchByDestinationAndTerm(paris.getId(), "famous");
+        List<ActivitySummary> towerResults = activityRepository.searchByDestinationAndTerm(
+                paris.getId(), "tower", PageRequest.of(0, 10)).getContent();
+        Slice<ActivitySummary> famousResults = activityRepository.searchByDestinationAndTerm(
+                paris.getId(), "famous", PageRequest.of(0, 1));
+        List<ActivitySummary> museumResults = activityRepository.searchByDestinationAndTerm(
+                paris.getId(), "museum", PageRequest.of(0, 10)).getContent();
 
         assertThat(towerResults).hasSize(1);
         assertThat(towerResults.get(0).getName()).isEqualTo("Eiffel Tower");
 
-        assertThat(famousResults).hasSize(2); // Eiffel Tower and Louvre
-        assertThat(famousResults).extracting(Activity::getName)
-                .containsExactlyInAnyOrder("Eiffel Tower", "Louvre Museum");
+        // Eiffel Tower and Louvre match; the more popular Louvre comes first
+        assertThat(famousResults.getContent()).extracting(ActivitySummary::getName).containsExactly("Louvre Museum");
+        assertThat(famousResults.hasNext()).isTrue();
+
+        assertThat(museumResults).extracting(ActivitySummary::getName).containsExactly("Louvre Museum");
     }
 
     @Test
@@ -225,5 +250,182 @@ public class ActivityRepositoryTest {
         assertThat(activityRepository.countByDestinationId(paris.getId())).isEqualTo(2);
         assertThat(activityRepository.countByDestinationId(london.getId())).isEqualTo(1);
     }
-}
 
+    @Test
+    public void testFindExistingForUpsert() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+
+        Destination london = new Destination();
+        london.setName("London");
+        london.setCountry("UK");
+        london = destinationRepository.save(london);
+
+        Activity tower = Activity.createFromGooglePlaces("place-tower", "Eiffel Tower", "attraction", paris);
+        activityRepository.save(tower);
+        activityRepository.save(new Activity("Louvre Museum", "museum", paris));
+        activityRepository.save(new Activity("Musée d'Orsay", "museum", paris));
+        activityRepository.save(new Activity("Louvre Museum", "museum", london));
+
+        List<Activity> existing = activityRepository.findExistingForUpsert(
+                paris.getId(), List.of("place-tower", "place-unknown"), List.of("louvre museum"));
+        List<Activity> byNameOnly = activityRepository.findExistingForUpsert(
+                paris.getId(), List.of(), List.of("musée d'orsay"));
+
+        assertThat(existing).extracting(Activity::getName)
+                .containsExactlyInAnyOrder("Eiffel Tower", "Louvre Museum");
+        assertThat(existing).allMatch(activity -> activity.getDestination().getId().equals(tower.getDestination().getId()));
+        assertThat(byNameOnly).extracting(Activity::getName).containsExactly("Musée d'Orsay");
+    }
+
+    @Test
+    public void testTouchUpdatedAtOnlyBumpsTimestamps() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+
+        Activity louvre = Activity.createFromGooglePlaces("place-louvre", "Louvre", "museum", paris);
+        louvre.setReviewsJson("[{\"rating\":5}]");
+        louvre.setContentHash("abc123");
+        louvre = activityRepository.saveAndFlush(louvre);
+
+        LocalDateTime now = LocalDateTime.now().plusMinutes(5).withNano(0);
+        LocalDateTime fetchedAt = now.minusDays(20);
+        int touched = activityRepository.touchDetailsFetchedAt(List.of(louvre.getId()), now, fetchedAt);
+        entityManager.clear();
+
+        Activity reloaded = activityRepository.findById(louvre.getId()).orElseThrow();
+        assertThat(touched).isEqualTo(1);
+        assertThat(reloaded.getUpdatedAt()).isEqualTo(now);
+        assertThat(reloaded.getDetailsFetchedAt()).isEqualTo(fetchedAt);
+        assertThat(reloaded.getReviewsJson()).isEqualTo("[{\"rating\":5}]");
+        assertThat(reloaded.getContentHash()).isEqualTo("abc123");
+    }
+
+    @Test
+    public void testFindDestinationIdsWithCoordinates() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+        Destination rome = new Destination();
+        rome.setName("Rome");
+        rome.setCountry("Italy");
+        rome = destinationRepository.save(rome);
+
+        Activity tower = Activity.createFromGooglePlaces("place-tower", "Eiffel Tower", "attraction", paris);
+        tower.setLatitude(new BigDecimal("48.8584"));
+        tower.setLongitude(new BigDecimal("2.2945"));
+        Activity louvre = Activity.createFromGooglePlaces("place-louvre", "Louvre", "museum", paris);
+        louvre.setLatitude(new BigDecimal("48.8606"));
+        louvre.setLongitude(new BigDecimal("2.3376"));
+        activityRepository.save(tower);
+        activityRepository.save(louvre);
+        activityRepository.saveAndFlush(Activity.createFromGooglePlaces("place-forum", "Forum", "landmark", rome));
+
+        assertThat(activityRepository.findDestinationIdsWithCoordinates()).containsExactly(paris.getId());
+    }
+
+    @Test
+    public void testAggregateByCustomFlag() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+
+        activityRepository.save(Activity.createFromGooglePlaces("place-tower", "Eiffel Tower", "attraction", paris));
+        activityRepository.save(Activity.createFromGooglePlaces("place-louvre", "Louvre", "museum", paris));
+        activityRepository.saveAndFlush(Activity.createCustomActivity("Picnic", "custom", paris));
+
+        List<ActivityRepository.CatalogAggregate> rows = activityRepository.aggregateByCustomFlag(paris.getId());
+
+        assertThat(rows).hasSize(2);
+        ActivityRepository.CatalogAggregate custom = rows.stream()
+                .filter(row -> Boolean.TRUE.equals(row.getCustom())).findFirst().orElseThrow();
+        ActivityRepository.CatalogAggregate places = rows.stream()
+                .filter(row -> Boolean.FALSE.equals(row.getCustom())).findFirst().orElseThrow();
+        assertThat(custom.getActivityCount()).isEqualTo(1);
+        assertThat(places.getActivityCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPopularityFeedPagesByKeyset() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+
+        // Three activities share a score, so pages must break ties on id
+        for (int i = 0; i < 7; i++) {
+            Activity activity = Activity.createFromGooglePlaces("place-" + i, "Attraction " + i, "attraction", paris);
+            activity.setRating(new BigDecimal(i < 3 ? "4.50" : "3.0" + i));
+            activity.setUserRatingsTotal(i < 3 ? 1000 : 50);
+            activityRepository.save(activity);
+        }
+        activityRepository.flush();
+
+        List<ActivitySummary> seen = new ArrayList<>();
+        List<ActivitySummary> page = activityRepository.findPopularityFeed(paris.getId(), Limit.of(2));
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            ActivitySummary last = page.get(page.size() - 1);
+            page = activityRepository.findPopularityFeedAfter(
+                    paris.getId(), last.getPopularityScore(), last.getId(), Limit.of(2));
+        }
+
+        assertThat(seen).hasSize(7);
+        assertThat(seen).extracting(ActivitySummary::getId).doesNotHaveDuplicates();
+        assertThat(seen).extracting(ActivitySummary::getPopularityScore).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(seen.subList(0, 3)).extracting(ActivitySummary::getId).isSorted();
+    }
+
+    @Test
+    public void testBackfillPopularityScores() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+
+        Activity louvre = Activity.createFromGooglePlaces("place-louvre", "Louvre", "museum", paris);
+        louvre.setRating(new BigDecimal("4.7"));
+        louvre.setUserRatingsTotal(1000);
+        louvre = activityRepository.saveAndFlush(louvre);
+        entityManager.createQuery("UPDATE Activity a SET a.popularityScore = NULL").executeUpdate();
+
+        int scored = activityRepository.backfillPopularityScores();
+        entityManager.clear();
+
+        assertThat(scored).isEqualTo(1);
+        assertThat(activityRepository.findById(louvre.getId()).orElseThrow().getPopularityScore())
+                .isCloseTo(ActivityPopularityUtils.score(new BigDecimal("4.7"), 1000), within(1e-9));
+    }
+
+    @Test
+    public void testCategoryPopularityUsesStoredScore() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+
+        Activity popular = Activity.createFromGooglePlaces("place-louvre", "Louvre", "museum", paris);
+        popular.setRating(new BigDecimal("4.7"));
+        popular.setUserRatingsTotal(250000);
+        Activity niche = Activity.createFromGooglePlaces("place-small", "Small Gallery", "museum", paris);
+        niche.setRating(new BigDecimal("4.9"));
+        niche.setUserRatingsTotal(12);
+        Activity park = Activity.createFromGooglePlaces("place-park", "Park", "park", paris);
+        park.setRating(new BigDecimal("5.0"));
+        park.setUserRatingsTotal(90000);
+        activityRepository.saveAll(List.of(niche, popular, park));
+        activityRepository.flush();
+
+        Page<Activity> museums = activityRepository.findByDestinationIdAndCategoryOrderByPopularity(
+                paris.getId(), "museum", PageRequest.of(0, 10));
+
+        assertThat(museums.getContent()).extracting(Activity::getName).containsExactly("Louvre", "Small Gallery");
+        assertThat(museums.getTotalElements()).isEqualTo(2);
+    }
+}
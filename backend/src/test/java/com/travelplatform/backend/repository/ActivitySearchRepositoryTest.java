@@ -0,0 +1,31 @@
+package com.travelplatform.backend.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Activity Search Query Tests")
+class ActivitySearchRepositoryTest {
+
+    @Test
+    @DisplayName("Should turn every word into a required prefix term")
+    void shouldBuildPrefixQuery() {
+        assertThat(ActivitySearchRepository.toPrefixQuery("Eiff Tow")).isEqualTo("eiff:* & tow:*");
+    }
+
+    @Test
+    @DisplayName("Should drop tsquery operators and punctuation from user input")
+    void shouldStripTsQuerySyntax() {
+        assertThat(ActivitySearchRepository.toPrefixQuery("arc & (triomphe) | !:*"))
+                .isEqualTo("arc:* & triomphe:*");
+        assertThat(ActivitySearchRepository.toPrefixQuery("Sacré-Cœur")).isEqualTo("sacré:* & cœur:*");
+    }
+
+    @Test
+    @DisplayName("Should return an empty query when nothing is searchable")
+    void shouldReturnEmptyQueryForPunctuationOnly() {
+        assertThat(ActivitySearchRepository.toPrefixQuery("  &|! ")).isEmpty();
+        assertThat(ActivitySearchRepository.toPrefixQuery(null)).isEmpty();
+    }
+}
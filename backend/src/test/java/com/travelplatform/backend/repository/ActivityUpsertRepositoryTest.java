@@ -0,0 +1,74 @@
+package com.travelplatform.backend.repository;
+
+import com.travelplatform.backend.entity.Activity;
+import com.travelplatform.backend.entity.Destination;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 has no ON CONFLICT, so only the freshness bump that follows the PostgreSQL upsert runs
+ * here; its UPDATE statements are the same ones sent to PostgreSQL.
+ */
+@DataJpaTest
+@Import(ActivityUpsertRepository.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class ActivityUpsertRepositoryTest {
+
+    @Autowired
+    private ActivityUpsertRepository activityUpsertRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testTouchSkippedKeepsOriginalDetailsFetchedAt() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.save(paris);
+        LocalDateTime storedFetchedAt = LocalDateTime.of(2024, 1, 1, 10, 15, 30);
+        Activity louvre = Activity.createFromGooglePlaces("place-louvre", "Louvre", "museum", paris);
+        louvre.setDetailsFetchedAt(storedFetchedAt);
+        Activity tower = Activity.createFromGooglePlaces("place-tower", "Eiffel Tower", "attraction", paris);
+        LocalDateTime towerFetchedAt = LocalDateTime.of(2024, 1, 3, 8, 0);
+        tower.setDetailsFetchedAt(towerFetchedAt);
+        activityRepository.saveAndFlush(louvre);
+        activityRepository.saveAndFlush(tower);
+
+        // Details replayed from the response cache keep the time Google answered; the tower's were skipped
+        Activity replayed = Activity.createFromGooglePlaces("place-louvre", "Louvre", "museum", paris);
+        replayed.setDetailsFetchedAt(storedFetchedAt);
+        Activity skipped = Activity.createFromGooglePlaces("place-tower", "Eiffel Tower", "attraction", paris);
+        LocalDateTime now = LocalDateTime.now().plusMinutes(1).withNano(0);
+        activityUpsertRepository.touchSkipped(List.of(replayed, skipped), Timestamp.valueOf(now));
+        entityManager.clear();
+
+        Activity reloadedLouvre = activityRepository.findById(louvre.getId()).orElseThrow();
+        Activity reloadedTower = activityRepository.findById(tower.getId()).orElseThrow();
+        assertThat(reloadedLouvre.getDetailsFetchedAt()).isEqualTo(storedFetchedAt.withSecond(0));
+        assertThat(reloadedLouvre.getUpdatedAt()).isEqualTo(now);
+        assertThat(reloadedTower.getDetailsFetchedAt()).isEqualTo(towerFetchedAt);
+        assertThat(reloadedTower.getUpdatedAt()).isEqualTo(now);
+    }
+}
@@ -0,0 +1,81 @@
+package com.travelplatform.backend.repository;
+
+import com.travelplatform.backend.entity.Activity;
+import com.travelplatform.backend.entity.Destination;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements Hibernate prepares for a catalog-sized insert. With pooled
+ * sequences and batching, 150 activities need a few sequence calls and a few batches
+ * instead of one INSERT round trip per row.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class BatchInsertStatementCountTest {
+
+    private static final int ACTIVITY_COUNT = 150;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testCatalogInsertIsBatched() {
+        Destination paris = new Destination();
+        paris.setName("Paris");
+        paris.setCountry("France");
+        paris = destinationRepository.saveAndFlush(paris);
+
+        List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < ACTIVITY_COUNT; i++) {
+            activities.add(Activity.createFromGooglePlaces("place-" + i, "Attraction " + i, "Landmark", paris));
+        }
+
+        statistics.clear();
+        activityRepository.saveAll(activities);
+        entityManager.flush();
+
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ACTIVITY_COUNT);
+        // 3 batches of 50 plus ~4 sequence fetches; IDENTITY needed 150 single-row INSERTs
+        assertThat(statements).isLessThanOrEqualTo(10);
+        assertThat(activityRepository.countByDestinationId(paris.getId())).isEqualTo(ACTIVITY_COUNT);
+    }
+}
@@ -0,0 +1,184 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.repository.ActivityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Activity Catalog Snapshot Store Tests")
+class ActivityCatalogSnapshotStoreTest {
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    private ActivityCatalogSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ActivityCatalogSnapshotStore(activityRepository, Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    @DisplayName("Should build a snapshot once and serve it until invalidated")
+    void shouldReuseSnapshotUntilInvalidated() {
+        when(activityRepository.findSummariesByDestinationId(1L)).thenReturn(List.of(summary(1L)));
+
+        ActivityCatalogSnapshot first = store.get(1L);
+        assertThat(store.get(1L)).isSameAs(first);
+        verify(activityRepository, times(1)).findSummariesByDestinationId(1L);
+
+        store.invalidateAfterCommit(1L); // No transaction here, so immediate
+        ActivityCatalogSnapshot second = store.get(1L);
+
+        assertThat(second).isNotSameAs(first);
+        verify(activityRepository, times(2)).findSummariesByDestinationId(1L);
+    }
+
+    @Test
+    @DisplayName("Should not install a snapshot whose load raced with a write")
+    void shouldDiscardSnapshotLoadedDuringInvalidation() {
+        when(activityRepository.findSummariesByDestinationId(1L))
+                .thenAnswer(invocation -> {
+                    store.invalidate(1L); // A write commits while the rows are being read
+                    return List.of(summary(1L));
+                })
+                .thenReturn(List.of(summary(1L), summary(2L)));
+
+        assertThat(store.get(1L).size()).isEqualTo(1);
+        assertThat(store.get(1L).size()).isEqualTo(2);
+        assertThat(store.get(1L).size()).isEqualTo(2);
+        verify(activityRepository, times(2)).findSummariesByDestinationId(1L);
+    }
+
+    @Test
+    @DisplayName("Should share one build between concurrent readers")
+    void shouldShareBuildBetweenConcurrentReaders() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(activityRepository.findSummariesByDestinationId(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(summary(1L));
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<ActivityCatalogSnapshot> first = readers.submit(() -> store.get(1L));
+            loading.await();
+            Future<ActivityCatalogSnapshot> second = readers.submit(() -> store.get(1L));
+            release.countDown();
+
+            assertThat(second.get()).isSameAs(first.get());
+            verify(activityRepository, times(1)).findSummariesByDestinationId(1L);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should build all missing geo indexes from one query")
+    void shouldBuildMissingGeoIndexesTogether() {
+        when(activityRepository.findDestinationIdsWithCoordinates()).thenReturn(List.of(1L, 2L));
+        when(activityRepository.findSummariesByDestinationIdIn(any())).thenReturn(List.of(
+                row(1L, located(1L, 48.8606, 2.3376)),
+                row(2L, located(2L, 38.6916, -9.2160))));
+
+        assertThat(store.getGeoIndexes()).hasSize(2);
+        assertThat(store.getGeoIndexes()).hasSize(2);
+
+        verify(activityRepository, times(1)).findSummariesByDestinationIdIn(any());
+        verify(activityRepository, never()).findSummariesByDestinationId(any());
+    }
+
+    @Test
+    @DisplayName("Should rebuild only the written destination's geo index")
+    void shouldRebuildOnlyWrittenDestinationGeoIndex() {
+        when(activityRepository.findDestinationIdsWithCoordinates()).thenReturn(List.of(1L, 2L));
+        when(activityRepository.findSummariesByDestinationIdIn(any()))
+                .thenReturn(List.of(row(1L, located(1L, 48.8606, 2.3376)), row(2L, located(2L, 38.6916, -9.2160))))
+                .thenReturn(List.<Object[]>of(row(1L, located(1L, 48.8606, 2.3376))));
+
+        List<ActivityGeoIndex> first = store.getGeoIndexes();
+        store.invalidate(1L);
+        List<ActivityGeoIndex> second = store.getGeoIndexes();
+
+        assertThat(second).hasSize(2);
+        assertThat(second).doesNotContain(first.get(0)).contains(first.get(1));
+        verify(activityRepository).findSummariesByDestinationIdIn(List.of(1L));
+        verify(activityRepository, times(2)).findSummariesByDestinationIdIn(any());
+        verify(activityRepository, times(1)).findDestinationIdsWithCoordinates();
+    }
+
+    @Test
+    @DisplayName("Should pick up a destination whose first located activities were written after loading")
+    void shouldAddNewlyLocatedDestination() {
+        when(activityRepository.findDestinationIdsWithCoordinates()).thenReturn(List.of(1L));
+        when(activityRepository.findSummariesByDestinationIdIn(any()))
+                .thenReturn(List.<Object[]>of(row(1L, located(1L, 48.8606, 2.3376))))
+                .thenReturn(List.<Object[]>of(row(3L, located(3L, 41.9029, 12.4534))));
+
+        assertThat(store.getGeoIndexes()).hasSize(1);
+        store.invalidate(3L);
+
+        assertThat(store.getGeoIndexes()).hasSize(2);
+        verify(activityRepository, times(1)).findDestinationIdsWithCoordinates();
+    }
+
+    @Test
+    @DisplayName("Should rebuild snapshots older than the max age in the background")
+    void shouldRefreshExpiredSnapshots() throws Exception {
+        store = new ActivityCatalogSnapshotStore(activityRepository, Duration.ofMillis(1), 100);
+        CountDownLatch release = new CountDownLatch(1);
+        when(activityRepository.findSummariesByDestinationId(1L))
+                .thenReturn(List.of(summary(1L)))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return List.of(summary(1L), summary(2L));
+                });
+
+        ActivityCatalogSnapshot first = store.get(1L);
+        Thread.sleep(5);
+
+        assertThat(store.get(1L)).isSameAs(first); // Served stale while the rebuild runs
+        release.countDown();
+        verify(activityRepository, timeout(1000).times(2)).findSummariesByDestinationId(1L);
+        // Keep reading until the rebuilt snapshot is installed
+        for (int i = 0; i < 200 && store.get(1L).size() < 2; i++) {
+            Thread.sleep(5);
+        }
+        assertThat(store.get(1L).size()).isEqualTo(2);
+    }
+
+    private ActivitySummary located(Long id, double latitude, double longitude) {
+        ActivitySummary summary = summary(id);
+        summary.setLatitude(BigDecimal.valueOf(latitude));
+        summary.setLongitude(BigDecimal.valueOf(longitude));
+        return summary;
+    }
+
+    private Object[] row(Long destinationId, ActivitySummary summary) {
+        return new Object[]{destinationId, summary};
+    }
+
+    private ActivitySummary summary(Long id) {
+        ActivitySummary summary = new ActivitySummary();
+        summary.setId(id);
+        return summary;
+    }
+}
@@ -0,0 +1,165 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.CostHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Activity Catalog Snapshot Tests")
+class ActivityCatalogSnapshotTest {
+
+    private ActivityCatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Deliberately out of popularity order
+        snapshot = ActivityCatalogSnapshot.build(List.of(
+                summary(1L, "Cheap Cafe", "restaurant", 1500.0, "4.1", 40.0),
+                summary(2L, "Louvre", "museum", 2200.0, "4.7", 95.0),
+                summary(3L, "Orsay", "museum", null, "4.8", 70.0),
+                summary(4L, "Street Market", "shopping", 0.0, null, 10.0),
+                summary(5L, "Tasting Menu", "restaurant", 9000.0, "4.7", 60.0)));
+    }
+
+    @Test
+    @DisplayName("Should hold rows in popularity order")
+    void shouldOrderByPopularity() {
+        assertThat(snapshot.all()).extracting(ActivitySummary::getId).containsExactly(2L, 3L, 5L, 1L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should filter by category")
+    void shouldFilterByCategory() {
+        assertThat(snapshot.query("museum", null, null, ActivityCatalogSnapshot.SortOrder.POPULARITY, 0))
+                .extracting(ActivitySummary::getName).containsExactly("Louvre", "Orsay");
+        assertThat(snapshot.query("nightlife", null, null, ActivityCatalogSnapshot.SortOrder.POPULARITY, 0)).isEmpty();
+        assertThat(snapshot.categories()).containsExactlyInAnyOrder("museum", "restaurant", "shopping");
+    }
+
+    @Test
+    @DisplayName("Should exclude activities without a cost from cost ranges")
+    void shouldFilterByCostRange() {
+        assertThat(snapshot.query(null, 0.0, 2500.0, ActivityCatalogSnapshot.SortOrder.COST, 0))
+                .extracting(ActivitySummary::getName).containsExactly("Street Market", "Cheap Cafe", "Louvre");
+        assertThat(snapshot.query(null, null, null, ActivityCatalogSnapshot.SortOrder.COST, 0))
+                .extracting(ActivitySummary::getName).last().isEqualTo("Orsay");
+    }
+
+    @Test
+    @DisplayName("Should seek cost ranges without an upper or lower bound")
+    void shouldFilterOpenEndedCostRange() {
+        assertThat(snapshot.query(null, 1500.0, null, ActivityCatalogSnapshot.SortOrder.COST, 0))
+                .extracting(ActivitySummary::getName).containsExactly("Cheap Cafe", "Louvre", "Tasting Menu");
+        assertThat(snapshot.query(null, null, 1499.0, ActivityCatalogSnapshot.SortOrder.COST, 0))
+                .extracting(ActivitySummary::getName).containsExactly("Street Market");
+        assertThat(snapshot.query("museum", 10_000.0, null, ActivityCatalogSnapshot.SortOrder.COST, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should precompute cost percentiles and buckets")
+    void shouldBuildCostHistogram() {
+        CostHistogram histogram = snapshot.costHistogram();
+
+        assertThat(histogram.getPricedCount()).isEqualTo(4);
+        assertThat(histogram.getUnpricedCount()).isEqualTo(1);
+        assertThat(histogram.getMin()).isEqualTo(0.0);
+        assertThat(histogram.getMax()).isEqualTo(9000.0);
+        assertThat(histogram.getP25()).isEqualTo(0.0);
+        assertThat(histogram.getMedian()).isEqualTo(1500.0);
+        assertThat(histogram.getP75()).isEqualTo(2200.0);
+        assertThat(histogram.getP90()).isEqualTo(9000.0);
+        assertThat(histogram.getBuckets()).hasSize(4);
+        assertThat(histogram.getBuckets()).extracting(CostHistogram.Bucket::getCount).containsExactly(3, 0, 0, 1);
+        assertThat(histogram.getBuckets().get(3).getUpperBound()).isEqualTo(9000.0);
+    }
+
+    @Test
+    @DisplayName("Should build histograms for unpriced and single-price catalogs")
+    void shouldBuildDegenerateCostHistograms() {
+        CostHistogram empty = ActivityCatalogSnapshot.build(List.of(
+                summary(1L, "Park", "park", null, null, 1.0))).costHistogram();
+        assertThat(empty.getPricedCount()).isZero();
+        assertThat(empty.getUnpricedCount()).isEqualTo(1);
+        assertThat(empty.getMedian()).isNull();
+        assertThat(empty.getBuckets()).isEmpty();
+
+        CostHistogram single = ActivityCatalogSnapshot.build(List.of(
+                summary(1L, "Cafe", "restaurant", 500.0, null, 2.0),
+                summary(2L, "Bakery", "restaurant", 500.0, null, 1.0))).costHistogram();
+        assertThat(single.getBuckets()).hasSize(1);
+        assertThat(single.getBuckets().get(0).getCount()).isEqualTo(2);
+        assertThat(single.getP10()).isEqualTo(500.0);
+    }
+
+    @Test
+    @DisplayName("Should return rated activities highest first, ties by popularity")
+    void shouldReturnTopRated() {
+        assertThat(snapshot.topRated(0, 0))
+                .extracting(ActivitySummary::getName)
+                .containsExactly("Orsay", "Louvre", "Tasting Menu", "Cheap Cafe");
+        assertThat(snapshot.topRated(0, 2)).extracting(ActivitySummary::getName).containsExactly("Orsay", "Louvre");
+    }
+
+    @Test
+    @DisplayName("Should skip top rated activities with too few reviews")
+    void shouldFilterTopRatedByReviewCount() {
+        ActivityCatalogSnapshot reviewed = ActivityCatalogSnapshot.build(List.of(
+                reviewed(summary(1L, "Hidden Gem", "bar", null, "4.9", 5.0), 3),
+                reviewed(summary(2L, "Louvre", "museum", null, "4.7", 95.0), 250_000),
+                reviewed(summary(3L, "Unknown Count", "park", null, "4.8", 1.0), null),
+                reviewed(summary(4L, "Orsay", "museum", null, "4.6", 70.0), 90_000)));
+
+        assertThat(reviewed.topRated(100, 0)).extracting(ActivitySummary::getName).containsExactly("Louvre", "Orsay");
+        assertThat(reviewed.topRated(100, 1)).extracting(ActivitySummary::getName).containsExactly("Louvre");
+        assertThat(reviewed.topRated(0, 2)).extracting(ActivitySummary::getName).containsExactly("Hidden Gem", "Unknown Count");
+    }
+
+    @Test
+    @DisplayName("Should combine category, sort and limit")
+    void shouldCombineFilters() {
+        assertThat(snapshot.query("restaurant", null, null, ActivityCatalogSnapshot.SortOrder.RATING, 1))
+                .extracting(ActivitySummary::getName).containsExactly("Tasting Menu");
+    }
+
+    @Test
+    @DisplayName("Should not let callers modify the snapshot")
+    void shouldBeUnmodifiable() {
+        List<ActivitySummary> all = snapshot.all();
+        assertThatThrownBy(() -> all.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.topRated(0, 1).clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should parse sort parameters")
+    void shouldParseSortOrder() {
+        assertThat(ActivityCatalogSnapshot.SortOrder.fromParam(null)).isEqualTo(ActivityCatalogSnapshot.SortOrder.POPULARITY);
+        assertThat(ActivityCatalogSnapshot.SortOrder.fromParam("Rating")).isEqualTo(ActivityCatalogSnapshot.SortOrder.RATING);
+        assertThatThrownBy(() -> ActivityCatalogSnapshot.SortOrder.fromParam("distance"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("distance");
+    }
+
+    private ActivitySummary reviewed(ActivitySummary summary, Integer userRatingsTotal) {
+        summary.setUserRatingsTotal(userRatingsTotal);
+        return summary;
+    }
+
+    private ActivitySummary summary(Long id, String name, String category, Double cost, String rating, double popularity) {
+        ActivitySummary summary = new ActivitySummary();
+        summary.setId(id);
+        summary.setName(name);
+        summary.setCategory(category);
+        summary.setEstimatedCost(cost);
+        summary.setRating(rating != null ? new BigDecimal(rating) : null);
+        summary.setPopularityScore(popularity);
+        return summary;
+    }
+}
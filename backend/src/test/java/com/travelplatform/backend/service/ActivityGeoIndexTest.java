@@ -0,0 +1,124 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.NearbyActivity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Activity Geo Index Tests")
+class ActivityGeoIndexTest {
+
+    // Around the Louvre
+    private static final double LAT = 48.8606;
+    private static final double LNG = 2.3376;
+
+    @Test
+    @DisplayName("Should return activities inside the radius, nearest first")
+    void shouldReturnNearestFirst() {
+        ActivityGeoIndex index = ActivityGeoIndex.build(List.of(
+                summary(1L, "Louvre", "museum", 48.8606, 2.3376),
+                summary(2L, "Eiffel Tower", "tourist_attraction", 48.8584, 2.2945),
+                summary(3L, "Musée d'Orsay", "museum", 48.8600, 2.3266),
+                summary(4L, "Versailles", "tourist_attraction", 48.8049, 2.1204),
+                summary(5L, "No Coordinates", "museum", null, null)));
+
+        List<NearbyActivity> nearby = index.nearby(LAT, LNG, 5000, null, 0);
+
+        assertThat(nearby).extracting(n -> n.getActivity().getName())
+                .containsExactly("Louvre", "Musée d'Orsay", "Eiffel Tower");
+        assertThat(nearby.get(0).getDistanceMeters()).isCloseTo(0.0, within(1.0));
+        assertThat(nearby.get(1).getDistanceMeters()).isCloseTo(810.0, within(20.0));
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should filter by category and respect the limit")
+    void shouldFilterByCategoryAndLimit() {
+        ActivityGeoIndex index = ActivityGeoIndex.build(List.of(
+                summary(1L, "Louvre", "museum", 48.8606, 2.3376),
+                summary(2L, "Eiffel Tower", "tourist_attraction", 48.8584, 2.2945),
+                summary(3L, "Musée d'Orsay", "museum", 48.8600, 2.3266)));
+
+        assertThat(index.nearby(LAT, LNG, 5000, "museum", 1))
+                .extracting(n -> n.getActivity().getName()).containsExactly("Louvre");
+        assertThat(index.nearby(LAT, LNG, 5000, "restaurant", 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find neighbours across the antimeridian")
+    void shouldWrapAcrossAntimeridian() {
+        ActivityGeoIndex index = ActivityGeoIndex.build(List.of(
+                summary(1L, "East", "viewpoint", -16.5, 179.995),
+                summary(2L, "West", "viewpoint", -16.5, -179.995)));
+
+        assertThat(index.nearby(-16.5, 179.999, 2000, null, 0))
+                .extracting(n -> n.getActivity().getName()).containsExactly("East", "West");
+    }
+
+    @Test
+    @DisplayName("Should merge per-destination indexes nearest first under one limit")
+    void shouldMergeIndexesNearestFirst() {
+        ActivityGeoIndex paris = ActivityGeoIndex.build(List.of(
+                summary(1L, "Louvre", "museum", 48.8606, 2.3376),
+                summary(2L, "Eiffel Tower", "tourist_attraction", 48.8584, 2.2945)));
+        ActivityGeoIndex parisSuburbs = ActivityGeoIndex.build(List.of(
+                summary(3L, "Musée d'Orsay", "museum", 48.8600, 2.3266)));
+        ActivityGeoIndex lisbon = ActivityGeoIndex.build(List.of(
+                summary(4L, "Belem Tower", "tourist_attraction", 38.6916, -9.2160)));
+
+        assertThat(ActivityGeoIndex.nearby(List.of(paris, parisSuburbs, lisbon), LAT, LNG, 5000, null, 2))
+                .extracting(n -> n.getActivity().getName()).containsExactly("Louvre", "Musée d'Orsay");
+        assertThat(lisbon.nearby(LAT, LNG, 50_000, null, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force haversine scan")
+    void shouldMatchBruteForce() {
+        Random random = new Random(42);
+        List<ActivitySummary> summaries = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            summaries.add(summary(id, "Activity " + id, "museum",
+                    LAT + (random.nextDouble() - 0.5) * 0.4, LNG + (random.nextDouble() - 0.5) * 0.6));
+        }
+        ActivityGeoIndex index = ActivityGeoIndex.build(summaries);
+
+        List<Long> expected = summaries.stream()
+                .filter(s -> distance(s) <= 3000)
+                .sorted(Comparator.comparingDouble(ActivityGeoIndexTest::distance))
+                .map(ActivitySummary::getId)
+                .toList();
+
+        assertThat(index.nearby(LAT, LNG, 3000, null, 0))
+                .extracting(n -> n.getActivity().getId())
+                .containsExactlyElementsOf(expected);
+        int limit = expected.size() / 2;
+        assertThat(limit).isPositive();
+        assertThat(index.nearby(LAT, LNG, 3000, null, limit))
+                .extracting(n -> n.getActivity().getId())
+                .containsExactlyElementsOf(expected.subList(0, limit));
+    }
+
+    private static double distance(ActivitySummary summary) {
+        return ActivityGeoIndex.haversineMeters(LAT, LNG,
+                summary.getLatitude().doubleValue(), summary.getLongitude().doubleValue());
+    }
+
+    private static ActivitySummary summary(Long id, String name, String category, Double latitude, Double longitude) {
+        ActivitySummary summary = new ActivitySummary();
+        summary.setId(id);
+        summary.setName(name);
+        summary.setCategory(category);
+        summary.setLatitude(latitude != null ? BigDecimal.valueOf(latitude) : null);
+        summary.setLongitude(longitude != null ? BigDecimal.valueOf(longitude) : null);
+        return summary;
+    }
+}
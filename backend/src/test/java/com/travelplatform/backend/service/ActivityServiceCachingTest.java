@@ -0,0 +1,210 @@
+package com.travelplatform.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.travelplatform.backend.config.CacheConfig;
+import com.travelplatform.backend.entity.Activity;
+import com.travelplatform.backend.entity.Destination;
+import com.travelplatform.backend.entity.DestinationCatalogState;
+import com.travelplatform.backend.repository.ActivityRepository;
+import com.travelplatform.backend.repository.ActivitySearchRepository;
+import com.travelplatform.backend.repository.ActivityUpsertRepository;
+import com.travelplatform.backend.repository.DestinationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs ActivityService behind the real cache proxy from CacheConfig, so the @Cacheable and
+ * @CacheEvict annotations are exercised against Caffeine rather than ignored.
+ */
+@SpringJUnitConfig({CacheConfig.class, ActivityService.class})
+@DisplayName("Activity Service Caching Tests")
+class ActivityServiceCachingTest {
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private ActivityRepository activityRepository;
+
+    @MockitoBean
+    private DestinationRepository destinationRepository;
+
+    @MockitoBean
+    private GooglePlacesService googlePlacesService;
+
+    @MockitoBean
+    private CostMultiplierService costMultiplierService;
+
+    @MockitoBean
+    private PlacesEnrichmentService placesEnrichmentService;
+
+    @MockitoBean
+    private DestinationRefreshCoordinator refreshCoordinator;
+
+    @MockitoBean
+    private ActivityUpsertRepository activityUpsertRepository;
+
+    @MockitoBean
+    private DestinationCatalogStateService catalogStateService;
+
+    @MockitoBean
+    private ActivitySearchRepository activitySearchRepository;
+
+    @MockitoBean
+    private ActivityCatalogSnapshotStore snapshotStore;
+
+    @MockitoBean(name = "activityRefreshExecutor")
+    private Executor refreshExecutor;
+
+    private Activity louvre;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        Destination paris = new Destination();
+        paris.setId(1L);
+        paris.setName("Paris");
+        paris.setCountry("France");
+        louvre = new Activity("Louvre", "museum", paris);
+        louvre.setId(42L);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups by id from the cache")
+    void shouldCacheActivityById() {
+        when(activityRepository.findById(42L)).thenReturn(Optional.of(louvre));
+
+        assertThat(activityService.getActivityById(42L)).contains(louvre);
+        assertThat(activityService.getActivityById(42L)).contains(louvre);
+
+        verify(activityRepository, times(1)).findById(42L);
+        assertThat(nativeCache("activityById").stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing activity")
+    void shouldNotCacheMissingActivity() {
+        when(activityRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> activityService.getActivityById(7L));
+        assertThatThrownBy(() -> activityService.getActivityById(7L));
+
+        verify(activityRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    @DisplayName("Should not mutate the cached activity when enhancing it with Places data")
+    void shouldNotMutateCachedActivityOnEnhance() {
+        Activity stored = new Activity("Louvre", "museum", louvre.getDestination());
+        stored.setId(42L);
+        when(activityRepository.findById(42L)).thenReturn(Optional.of(louvre)).thenReturn(Optional.of(stored));
+        when(activityRepository.save(stored)).thenReturn(stored);
+        Activity cached = activityService.getActivityById(42L).orElseThrow();
+        Activity placesData = new Activity("Louvre", "museum", louvre.getDestination());
+        placesData.setPhotoUrl("https://example.com/louvre.jpg");
+
+        activityService.enhanceActivityWithPlacesData(cached, placesData);
+
+        assertThat(cached.getPhotoUrl()).isNull();
+        assertThat(stored.getPhotoUrl()).isEqualTo("https://example.com/louvre.jpg");
+    }
+
+    @Test
+    @DisplayName("Should cache categories until an edit evicts them")
+    void shouldEvictOnUpdate() {
+        when(activityRepository.findDistinctCategories()).thenReturn(List.of("museum"));
+        when(activityRepository.findById(42L)).thenReturn(Optional.of(louvre));
+        when(activityRepository.save(louvre)).thenReturn(louvre);
+
+        activityService.getAllCategories();
+        activityService.getAllCategories();
+        verify(activityRepository, times(1)).findDistinctCategories();
+
+        activityService.updateActivity(42L, "Musée du Louvre", null, null, null, null);
+        activityService.getAllCategories();
+
+        verify(activityRepository, times(2)).findDistinctCategories();
+        verify(snapshotStore).invalidateAfterCommit(1L);
+    }
+
+    @Test
+    @DisplayName("Should compute catalog stats once per destination until evicted")
+    void shouldCacheCatalogStats() {
+        when(activityRepository.aggregateByCustomFlag(1L)).thenReturn(List.of());
+        when(catalogStateService.getOrInitialize(1L)).thenReturn(new DestinationCatalogState(1L));
+        when(activityRepository.findDestinationIdById(42L)).thenReturn(Optional.of(1L));
+
+        activityService.getCacheStats(1L);
+        activityService.getCacheStats(1L);
+        verify(activityRepository, times(1)).aggregateByCustomFlag(1L);
+
+        activityService.deleteActivity(42L);
+        activityService.getCacheStats(1L);
+        verify(activityRepository, times(2)).aggregateByCustomFlag(1L);
+    }
+
+    @Test
+    @DisplayName("Should evict cached activities after a background refresh")
+    void shouldEvictAfterBackgroundRefresh() {
+        ActivityService target = AopTestUtils.getTargetObject(activityService);
+        ReflectionTestUtils.setField(target, "staleWhileRevalidate", true);
+        DestinationCatalogState stale = new DestinationCatalogState(1L);
+        stale.setActivityCount(1);
+        stale.setLastRefreshedAt(LocalDateTime.now().minusDays(45));
+        when(catalogStateService.getOrInitialize(1L)).thenReturn(stale);
+        when(activityRepository.findById(42L)).thenReturn(Optional.of(louvre));
+        when(destinationRepository.findById(1L)).thenReturn(Optional.of(louvre.getDestination()));
+        when(googlePlacesService.searchAllQueries(any(), any(), anyBoolean())).thenReturn(List.of(louvre));
+        when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(List.of()));
+        // Run the "background" refresh inline; it calls saveActivitiesFromPlaces on itself, not the proxy
+        when(refreshCoordinator.refreshInBackground(eq(1L), any(), any())).thenAnswer(invocation -> {
+            invocation.<Supplier<List<Activity>>>getArgument(1).get();
+            return true;
+        });
+
+        activityService.getActivityById(42L);
+        activityService.getAllActivitiesByDestination(1L);
+        activityService.getActivityById(42L);
+
+        verify(catalogStateService).recordRefreshSucceeded(1L);
+        verify(activityRepository, times(2)).findById(42L);
+    }
+
+    @Test
+    @DisplayName("Should only expose the configured caches")
+    void shouldOnlyExposeConfiguredCaches() {
+        assertThat(cacheManager.getCacheNames())
+                .containsExactlyInAnyOrder("activityById", "activityCategories", "catalogStats");
+        assertThat(cacheManager.getCache("destinationActivities")).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
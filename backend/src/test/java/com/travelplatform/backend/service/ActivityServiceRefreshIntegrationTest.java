@@ -0,0 +1,82 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.entity.Activity;
+import com.travelplatform.backend.entity.Destination;
+import com.travelplatform.backend.entity.DestinationCatalogState.RefreshStatus;
+import com.travelplatform.backend.repository.ActivityRepository;
+import com.travelplatform.backend.repository.DestinationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a forced refresh end to end against H2 with only Google mocked. The second refresh
+ * finds every place unchanged, so it goes through the bulk freshness UPDATEs; those run
+ * outside any service-level transaction because the refresh calls saveActivitiesFromPlaces
+ * on itself rather than through the proxy.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Activity Service Refresh Integration Tests")
+class ActivityServiceRefreshIntegrationTest {
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private DestinationCatalogStateService catalogStateService;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @MockitoBean
+    private GooglePlacesService googlePlacesService;
+
+    @MockitoBean
+    private PlacesEnrichmentService placesEnrichmentService;
+
+    @Test
+    @DisplayName("Should succeed when a forced refresh finds every place unchanged")
+    void shouldSucceedWhenRefreshFindsUnchangedPlaces() {
+        Destination destination = new Destination();
+        destination.setName("Lisbon");
+        destination.setCountry("Portugal");
+        Destination lisbon = destinationRepository.saveAndFlush(destination);
+        LocalDateTime detailsFetchedAt = LocalDateTime.now().minusHours(1);
+        // Fresh instances on every call, as Google search results would be
+        when(googlePlacesService.searchAllQueries(any(), any(), anyBoolean())).thenAnswer(invocation -> {
+            Activity withDetails = Activity.createFromGooglePlaces("lisbon-1", "Belem Tower", "Landmark", lisbon);
+            withDetails.setDetailsFetchedAt(detailsFetchedAt);
+            Activity withoutDetails = Activity.createFromGooglePlaces("lisbon-2", "Alfama", "Neighborhood", lisbon);
+            return List.of(withDetails, withoutDetails);
+        });
+
+        activityService.forceRefreshActivities(lisbon.getId());
+        assertThat(catalogStateService.getOrInitialize(lisbon.getId()).getRefreshStatus())
+                .isEqualTo(RefreshStatus.SUCCEEDED);
+
+        activityService.forceRefreshActivities(lisbon.getId());
+
+        assertThat(catalogStateService.getOrInitialize(lisbon.getId()).getRefreshStatus())
+                .isEqualTo(RefreshStatus.SUCCEEDED);
+        assertThat(activityRepository.countByDestinationId(lisbon.getId())).isEqualTo(2);
+        assertThat(activityRepository.findByPlaceIdIn(List.of("lisbon-1")))
+                .singleElement()
+                .satisfies(activity -> assertThat(activity.getDetailsFetchedAt())
+                        .isEqualTo(detailsFetchedAt.withSecond(0).withNano(0)));
+    }
+}
@@ -1,10 +1,20 @@
 package com.travelplatform.backend.service;
 
+import com.travelplatform.backend.dto.ActivityFeedCursor;
+import com.travelplatform.backend.dto.ActivityPageResponse;
+import com.travelplatform.backend.dto.ActivitySummary;
+import com.travelplatform.backend.dto.CostHistogram;
+import com.travelplatform.backend.dto.NearbyActivity;
 import com.travelplatform.backend.entity.Activity;
 import com.travelplatform.backend.entity.Destination;
+import com.travelplatform.backend.entity.DestinationCatalogState;
 import com.travelplatform.backend.exception.ActivityNotFoundException;
 import com.travelplatform.backend.repository.ActivityRepository;
+import com.travelplatform.backend.repository.ActivitySearchRepository;
+import com.travelplatform.backend.repository.ActivityUpsertRepository;
 import com.travelplatform.backend.repository.DestinationRepository;
+import com.travelplatform.backend.util.ActivityContentHashUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,13 +22,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -41,6 +61,30 @@ class ActivityServiceTest {
     @Mock
     private CostMultiplierService costMultiplierService;
 
+    @Mock
+    private PlacesEnrichmentService placesEnrichmentService;
+
+    @Mock
+    private Executor refreshExecutor;
+
+    @Mock
+    private ActivityUpsertRepository activityUpsertRepository;
+
+    @Mock
+    private DestinationCatalogStateService catalogStateService;
+
+    @Mock
+    private ActivitySearchRepository activitySearchRepository;
+
+    @Mock
+    private ActivityCatalogSnapshotStore snapshotStore;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private DestinationRefreshCoordinator refreshCoordinator = new DestinationRefreshCoordinator(new SimpleMeterRegistry());
+
     @InjectMocks
     private ActivityService activityService;
 
@@ -59,6 +103,20 @@ class ActivityServiceTest {
         testActivity.setUpdatedAt(LocalDateTime.now());
     }
 
+    private ActivityRepository.CatalogAggregate catalogAggregate(boolean custom, long count) {
+        return new ActivityRepository.CatalogAggregate() {
+            public Boolean getCustom() { return custom; }
+            public long getActivityCount() { return count; }
+        };
+    }
+
+    private DestinationCatalogState catalogState(long activityCount, LocalDateTime lastRefreshedAt) {
+        DestinationCatalogState state = new DestinationCatalogState(1L);
+        state.setActivityCount(activityCount);
+        state.setLastRefreshedAt(lastRefreshedAt);
+        return state;
+    }
+
     @Nested
     @DisplayName("Activity Retrieval")
     class ActivityRetrieval {
@@ -75,13 +133,13 @@ class ActivityServiceTest {
             activity2.setName("Louvre Museum");
             activity2.setUpdatedAt(LocalDateTime.now().minusDays(1)); // Fresh cache
 
-            List<Activity> activities = Arrays.asList(activity1, activity2);
+            List<ActivitySummary> activities = Arrays.asList(ActivitySummary.from(activity1), ActivitySummary.from(activity2));
 
-            // Mock repository to return all activities
-            when(activityRepository.findByDestinationId(1L)).thenReturn(activities);
-            when(activityRepository.countByDestinationId(1L)).thenReturn(2L);
+            // Mock the snapshot to hold all activities
+            when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(activities));
+            when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(2, LocalDateTime.now().minusDays(1)));
 
-            List<Activity> result = activityService.getAllActivitiesByDestination(1L);
+            List<ActivitySummary> result = activityService.getAllActivitiesByDestination(1L);
 
             assertThat(result).hasSize(2);
             assertThat(result.get(0).getName()).isEqualTo("Eiffel Tower");
@@ -148,17 +206,19 @@ class ActivityServiceTest {
         @Test
         @DisplayName("Should delete activity when it exists")
         void shouldDeleteActivityWhenItExists() {
-            when(activityRepository.existsById(1L)).thenReturn(true);
+            when(activityRepository.findDestinationIdById(1L)).thenReturn(Optional.of(1L));
 
             activityService.deleteActivity(1L);
 
             verify(activityRepository).deleteById(1L);
+            verify(catalogStateService).recordActivitiesChanged(1L);
+            verify(snapshotStore).invalidateAfterCommit(1L);
         }
 
         @Test
         @DisplayName("Should throw exception when deleting non-existent activity")
         void shouldThrowExceptionWhenDeletingNonExistentActivity() {
-            when(activityRepository.existsById(999L)).thenReturn(false);
+            when(activityRepository.findDestinationIdById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> activityService.deleteActivity(999L))
                     .isInstanceOf(ActivityNotFoundException.class);
@@ -183,15 +243,15 @@ class ActivityServiceTest {
             museumActivity.setName("Louvre Museum");
             museumActivity.setUpdatedAt(LocalDateTime.now().minusDays(1)); // Fresh cache
 
-            List<Activity> allActivities = Arrays.asList(towerActivity, museumActivity);
+            List<ActivitySummary> allActivities = Arrays.asList(ActivitySummary.from(towerActivity), ActivitySummary.from(museumActivity));
 
             // Mock getting all activities (since search now filters on all activities)
-            when(activityRepository.findByDestinationId(1L)).thenReturn(allActivities);
-            when(activityRepository.countByDestinationId(1L)).thenReturn(2L);
+            when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(allActivities));
+            when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(2, LocalDateTime.now().minusDays(1)));
 
             // Since search method was removed, you'd need to implement it or test filtering logic
             // This assumes you implement a search method that gets all activities and filters
-            List<Activity> allResults = activityService.getAllActivitiesByDestination(1L);
+            List<ActivitySummary> allResults = activityService.getAllActivitiesByDestination(1L);
 
             // Frontend would filter these results - test that we get all activities back
             assertThat(allResults).hasSize(2);
@@ -202,26 +262,79 @@ class ActivityServiceTest {
         @Test
         @DisplayName("Should get top rated activities")
         void shouldGetTopRatedActivities() {
-            when(activityRepository.findTopRatedByDestination(1L)).thenReturn(Arrays.asList(testActivity));
+            testActivity.setRating(new BigDecimal("4.6"));
+            Activity unrated = new Activity("Unrated Cafe", "cafe", testDestination);
+            when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(
+                    List.of(ActivitySummary.from(unrated), ActivitySummary.from(testActivity))));
 
-            List<Activity> result = activityService.getTopRatedActivities(1L);
+            List<ActivitySummary> result = activityService.getTopRatedActivities(1L, 0, 10);
 
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getName()).isEqualTo("Eiffel Tower");
         }
 
+        @Test
+        @DisplayName("Should cap top rated activities at the limit and skip thinly reviewed ones")
+        void shouldLimitTopRatedActivities() {
+            List<ActivitySummary> summaries = new ArrayList<>();
+            for (long id = 1; id <= 150; id++) {
+                ActivitySummary summary = new ActivitySummary();
+                summary.setId(id);
+                summary.setName("Activity " + id);
+                summary.setRating(BigDecimal.valueOf(3.0 + id / 100.0));
+                summary.setUserRatingsTotal(id % 2 == 0 ? 500 : 5);
+                summaries.add(summary);
+            }
+            when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(summaries));
+
+            assertThat(activityService.getTopRatedActivities(1L, 0, 10))
+                    .extracting(ActivitySummary::getId)
+                    .containsExactly(150L, 149L, 148L, 147L, 146L, 145L, 144L, 143L, 142L, 141L);
+            assertThat(activityService.getTopRatedActivities(1L, 100, 3))
+                    .extracting(ActivitySummary::getId)
+                    .containsExactly(150L, 148L, 146L);
+            assertThat(activityService.getTopRatedActivities(1L, 0, 10_000)).hasSize(100);
+        }
+
         @Test
         @DisplayName("Should get activities by cost range")
         void shouldGetActivitiesByCostRange() {
-            when(activityRepository.findByDestinationAndCostRange(1L, 1000, 3000))
-                    .thenReturn(Arrays.asList(testActivity));
+            testActivity.setEstimatedCost(2000.0);
+            Activity expensive = new Activity("Tasting Menu", "restaurant", testDestination);
+            expensive.setEstimatedCost(9000.0);
+            when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(
+                    List.of(ActivitySummary.from(testActivity), ActivitySummary.from(expensive))));
 
-            List<Activity> result = activityService.getActivitiesByCostRange(1L, 1000, 3000);
+            List<ActivitySummary> result = activityService.getActivitiesByCostRange(1L, 1000.0, 3000.0);
 
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getName()).isEqualTo("Eiffel Tower");
         }
 
+        @Test
+        @DisplayName("Should serve the cost histogram from the snapshot")
+        void shouldGetCostHistogram() {
+            testActivity.setEstimatedCost(2000.0);
+            when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(List.of(ActivitySummary.from(testActivity))));
+
+            CostHistogram result = activityService.getCostHistogram(1L);
+
+            assertThat(result.getPricedCount()).isEqualTo(1);
+            assertThat(result.getMedian()).isEqualTo(2000.0);
+            verifyNoInteractions(activityRepository);
+        }
+
+        @Test
+        @DisplayName("Should cut long descriptions down to a preview in summaries")
+        void shouldTruncateDescriptionInSummary() {
+            testActivity.setDescription("x".repeat(1000));
+
+            ActivitySummary summary = ActivitySummary.from(testActivity);
+
+            assertThat(summary.getDescription()).hasSize(ActivitySummary.DESCRIPTION_PREVIEW_LENGTH);
+            assertThat(summary.getName()).isEqualTo("Eiffel Tower");
+        }
+
         @Test
         @DisplayName("Should get all categories")
         void shouldGetAllCategories() {
@@ -235,6 +348,160 @@ class ActivityServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Popularity Feed")
+    class PopularityFeed {
+
+        private ActivitySummary scored(long id, double score) {
+            Activity activity = new Activity("Activity " + id, "museum", testDestination);
+            activity.setId(id);
+            activity.setPopularityScore(score);
+            return ActivitySummary.from(activity);
+        }
+
+        @Test
+        @DisplayName("Should return the first page and a cursor to the next")
+        void shouldReturnFirstPageWithCursor() {
+            when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(3, LocalDateTime.now()));
+            when(activityRepository.findPopularityFeed(1L, Limit.of(3)))
+                    .thenReturn(List.of(scored(5L, 90.0), scored(2L, 80.5), scored(9L, 80.5)));
+
+            ActivityPageResponse page = activityService.getPopularityFeed(1L, null, 2);
+
+            assertThat(page.getActivities()).extracting(ActivitySummary::getId).containsExactly(5L, 2L);
+            assertThat(page.isHasMore()).isTrue();
+            ActivityFeedCursor cursor = ActivityFeedCursor.decode(page.getNextCursor());
+            assertThat(cursor.getPopularityScore()).isEqualTo(80.5);
+            assertThat(cursor.getId()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("Should seek past the cursor and stop on the last page")
+        void shouldSeekPastCursor() {
+            String cursor = new ActivityFeedCursor(80.5, 2L).encode();
+            when(activityRepository.findPopularityFeedAfter(1L, 80.5, 2L, Limit.of(3)))
+                    .thenReturn(List.of(scored(9L, 80.5)));
+
+            ActivityPageResponse page = activityService.getPopularityFeed(1L, cursor, 2);
+
+            assertThat(page.getActivities()).extracting(ActivitySummary::getId).containsExactly(9L);
+            assertThat(page.isHasMore()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+            verify(catalogStateService, never()).getOrInitialize(any());
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> activityService.getPopularityFeed(1L, "not-a-cursor", 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor with a NaN or infinite score")
+        void shouldRejectNonFiniteCursor() {
+            String nan = new ActivityFeedCursor(Double.NaN, 2L).encode();
+            String infinite = new ActivityFeedCursor(Double.NEGATIVE_INFINITY, 2L).encode();
+
+            assertThatThrownBy(() -> activityService.getPopularityFeed(1L, nan, 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> activityService.getPopularityFeed(1L, infinite, 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(activityRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Nearby")
+    class Nearby {
+
+        @Test
+        @DisplayName("Should answer from the geo index with a clamped limit")
+        void shouldQueryGeoIndex() {
+            testActivity.setLatitude(new BigDecimal("48.8584"));
+            testActivity.setLongitude(new BigDecimal("2.2945"));
+            when(snapshotStore.getGeoIndexes()).thenReturn(List.of(ActivityGeoIndex.build(List.of(ActivitySummary.from(testActivity)))));
+
+            List<NearbyActivity> result = activityService.getNearbyActivities(48.8580, 2.2950, 500, null, 1000);
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getActivity().getName()).isEqualTo("Eiffel Tower");
+            assertThat(result.get(0).getDistanceMeters()).isLessThan(100);
+        }
+
+        @Test
+        @DisplayName("Should reject out-of-range coordinates and radii")
+        void shouldRejectInvalidArguments() {
+            assertThatThrownBy(() -> activityService.getNearbyActivities(91, 0, 500, null, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> activityService.getNearbyActivities(48.85, 2.29, 0, null, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> activityService.getNearbyActivities(48.85, 2.29, 100_000, null, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(snapshotStore);
+        }
+
+        @Test
+        @DisplayName("Should reject NaN and infinite coordinates and radii")
+        void shouldRejectNonFiniteArguments() {
+            assertThatThrownBy(() -> activityService.getNearbyActivities(Double.NaN, 2.29, 500, null, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> activityService.getNearbyActivities(48.85, Double.NaN, 500, null, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> activityService.getNearbyActivities(48.85, 2.29, Double.NaN, null, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> activityService.getNearbyActivities(48.85, Double.POSITIVE_INFINITY, 500, null, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(snapshotStore);
+        }
+    }
+
+    @Nested
+    @DisplayName("Search")
+    class Search {
+
+        @Test
+        @DisplayName("Should use full-text search and report another page when one more row exists")
+        void shouldUseFullTextSearchWhenSupported() {
+            ActivitySummary tower = ActivitySummary.from(testActivity);
+            ActivitySummary extra = ActivitySummary.from(new Activity("Tower Bridge View", "viewpoint", testDestination));
+            when(activitySearchRepository.isSupported()).thenReturn(true);
+            when(activitySearchRepository.search(1L, "tow", 2, 1L)).thenReturn(List.of(tower, extra));
+
+            ActivityPageResponse page = activityService.searchActivities(1L, " tow ", 2, 1);
+
+            assertThat(page.getActivities()).containsExactly(tower);
+            assertThat(page.isHasMore()).isTrue();
+            assertThat(page.getCurrentPage()).isEqualTo(2);
+            assertThat(page.getQuery()).isEqualTo(" tow ");
+            verify(activityRepository, never()).searchByDestinationAndTerm(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to substring search without full-text support")
+        void shouldFallBackToSubstringSearch() {
+            ActivitySummary tower = ActivitySummary.from(testActivity);
+            when(activitySearchRepository.isSupported()).thenReturn(false);
+            when(activityRepository.searchByDestinationAndTerm(1L, "tower", PageRequest.of(0, 20)))
+                    .thenReturn(new SliceImpl<>(List.of(tower), PageRequest.of(0, 20), false));
+
+            ActivityPageResponse page = activityService.searchActivities(1L, "tower", 1, 20);
+
+            assertThat(page.getActivities()).containsExactly(tower);
+            assertThat(page.isHasMore()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should return an empty page for a blank query")
+        void shouldReturnEmptyPageForBlankQuery() {
+            ActivityPageResponse page = activityService.searchActivities(1L, "   ", 1, 20);
+
+            assertThat(page.getActivities()).isEmpty();
+            assertThat(page.isHasMore()).isFalse();
+            verifyNoInteractions(activitySearchRepository);
+        }
+    }
+
     @Nested
     @DisplayName("Smart Caching")
     class SmartCaching {
@@ -260,18 +527,105 @@ class ActivityServiceTest {
                 verify(googlePlacesService).searchActivitiesForDestination(1L, null);
             }
 
+            @Test
+            @DisplayName("Should serve stale activities and queue a background refresh")
+            void shouldServeStaleActivitiesAndRevalidateInBackground() {
+                ReflectionTestUtils.setField(activityService, "staleWhileRevalidate", true);
+                testActivity.setUpdatedAt(LocalDateTime.now().minusDays(45));
+
+                when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(1, LocalDateTime.now().minusDays(45)));
+                ActivitySummary summary = ActivitySummary.from(testActivity);
+                when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(List.of(summary)));
+
+                List<ActivitySummary> result = activityService.getAllActivitiesByDestination(1L);
+
+                assertThat(result).containsExactly(summary);
+                verify(refreshExecutor).execute(any(Runnable.class));
+                verify(googlePlacesService, never()).searchAllQueries(any(), any(), anyBoolean());
+                assertThat(activityService.isRevalidating(1L)).isTrue();
+            }
+
+            @Test
+            @DisplayName("Should not queue another refresh while backing off from a failed one")
+            void shouldNotRevalidateWhileBackingOff() {
+                ReflectionTestUtils.setField(activityService, "staleWhileRevalidate", true);
+                DestinationCatalogState state = catalogState(1, LocalDateTime.now().minusDays(45));
+                when(catalogStateService.getOrInitialize(1L)).thenReturn(state);
+                when(catalogStateService.isBackingOff(state)).thenReturn(true);
+                when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(List.of(ActivitySummary.from(testActivity))));
+
+                assertThat(activityService.getAllActivitiesByDestination(1L)).hasSize(1);
+
+                verify(refreshExecutor, never()).execute(any(Runnable.class));
+                verify(googlePlacesService, never()).searchAllQueries(any(), any(), anyBoolean());
+            }
+
+            @Test
+            @DisplayName("Should not report revalidation when the background queue rejects the refresh")
+            void shouldNotReportRevalidationWhenRefreshRejected() {
+                ReflectionTestUtils.setField(activityService, "staleWhileRevalidate", true);
+
+                when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(1, LocalDateTime.now().minusDays(45)));
+                when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(List.of(ActivitySummary.from(testActivity))));
+                doThrow(new RejectedExecutionException("full")).when(refreshExecutor).execute(any(Runnable.class));
+
+                activityService.getAllActivitiesByDestination(1L);
+
+                assertThat(activityService.isRevalidating(1L)).isFalse();
+            }
+
+            @Test
+            @DisplayName("Should block on the first fetch for an empty destination")
+            void shouldBlockOnFirstFetchForEmptyDestination() {
+                ReflectionTestUtils.setField(activityService, "staleWhileRevalidate", true);
+
+                when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(0, null));
+                when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
+                when(googlePlacesService.searchAllQueries(any(), any(), anyBoolean())).thenReturn(List.of());
+                when(activityRepository.findByDestinationId(1L)).thenReturn(List.of());
+                when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(List.of()));
+
+                activityService.getAllActivitiesByDestination(1L);
+
+                verify(googlePlacesService).searchAllQueries(any(), any(), anyBoolean());
+                verify(refreshExecutor, never()).execute(any(Runnable.class));
+                verify(catalogStateService).markRefreshing(1L);
+                verify(catalogStateService).recordRefreshFailed(1L);
+            }
+
             @Test
             @DisplayName("Should return cache statistics")
             void shouldReturnCacheStatistics() {
-                when(activityRepository.countByDestinationId(1L)).thenReturn(10L);
-                when(activityRepository.findByDestinationIdAndIsCustomFalse(1L)).thenReturn(Arrays.asList(testActivity));
-                when(activityRepository.findByDestinationIdAndIsCustomTrue(1L)).thenReturn(Arrays.asList());
-                when(activityRepository.findByDestinationId(1L)).thenReturn(Arrays.asList(testActivity));
+                LocalDateTime lastRefreshed = LocalDateTime.now().minusDays(2);
+                when(activityRepository.aggregateByCustomFlag(1L)).thenReturn(List.of(
+                        catalogAggregate(false, 8),
+                        catalogAggregate(true, 2)));
+                when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(10, lastRefreshed));
 
                 ActivityService.CacheStats result = activityService.getCacheStats(1L);
 
                 assertThat(result.getTotalActivities()).isEqualTo(10L);
+                assertThat(result.getLastRefresh()).isEqualTo(lastRefreshed);
+                assertThat(result.isCacheStale()).isFalse();
                 assertThat(result.getCacheTtlDays()).isEqualTo(30);
+                verify(activityRepository, never()).findByDestinationId(any());
+            }
+
+            @Test
+            @DisplayName("Should report the same staleness as the refresh decision")
+            void shouldTakeStalenessFromCatalogState() {
+                // A custom activity edited yesterday does not make a 40-day-old Places catalog fresh
+                when(activityRepository.aggregateByCustomFlag(1L)).thenReturn(List.of(
+                        catalogAggregate(false, 8),
+                        catalogAggregate(true, 2)));
+                when(catalogStateService.getOrInitialize(1L))
+                        .thenReturn(catalogState(10, LocalDateTime.now().minusDays(40)));
+
+                assertThat(activityService.getCacheStats(1L).isCacheStale()).isTrue();
+
+                when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(0, null));
+
+                assertThat(activityService.getCacheStats(1L).isCacheStale()).isFalse();
             }
         }
 
@@ -287,15 +641,16 @@ class ActivityServiceTest {
                 newActivity.setEstimatedCost(50.0);
 
                 when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
-                when(activityRepository.findByPlaceId("new_place_id")).thenReturn(Optional.empty());
-                when(activityRepository.findByDestinationIdAndNameIgnoreCase(1L, "New Activity")).thenReturn(Optional.empty());
-                when(activityRepository.save(any(Activity.class))).thenReturn(newActivity);
+                when(activityRepository.findExistingForUpsert(1L, Set.of("new_place_id"), Set.of("new activity")))
+                        .thenReturn(List.of());
+                when(activityRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
                 when(costMultiplierService.applyMultiplier(50.0, "Paris")).thenReturn(42.5); // Paris multiplier 0.85
 
                 List<Activity> result = activityService.saveActivitiesFromPlaces(Arrays.asList(newActivity), 1L);
 
-                assertThat(result).hasSize(1);
-                verify(activityRepository).save(any(Activity.class));
+                assertThat(result).containsExactly(newActivity);
+                verify(activityRepository).saveAll(List.of(newActivity));
+                verify(activityRepository, never()).save(any(Activity.class));
                 verify(costMultiplierService).applyMultiplier(50.0, "Paris");
             }
 
@@ -311,16 +666,166 @@ class ActivityServiceTest {
                 newData.setDescription("Updated description");
 
                 when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
-                when(activityRepository.findByPlaceId("duplicate_place_id")).thenReturn(Optional.of(existingActivity));
-                when(activityRepository.save(any(Activity.class))).thenReturn(existingActivity);
+                when(activityRepository.findExistingForUpsert(eq(1L), anyCollection(), anyCollection()))
+                        .thenReturn(List.of(existingActivity));
+                when(activityRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
                 when(costMultiplierService.applyMultiplier(60.0, "Paris")).thenReturn(51.0);
 
                 List<Activity> result = activityService.saveActivitiesFromPlaces(Arrays.asList(newData), 1L);
 
-                assertThat(result).hasSize(1);
+                assertThat(result).containsExactly(existingActivity);
+                assertThat(existingActivity.getDescription()).isEqualTo("Updated description");
                 // Verify the existing activity was updated, not a new one created
-                verify(activityRepository).save(existingActivity);
-                verify(activityRepository, never()).save(newData);
+                verify(activityRepository).saveAll(Set.of(existingActivity));
+                verify(activityRepository).saveAll(List.of());
+            }
+
+            @Test
+            @DisplayName("Should only bump timestamps when Places data is unchanged")
+            void shouldSkipRowWriteWhenContentHashUnchanged() {
+                Activity refreshed = Activity.createFromGooglePlaces("louvre_place_id", "Louvre", "Museum", testDestination);
+                refreshed.setReviewsJson("[{\"rating\":5}]");
+                LocalDateTime cachedDetailsFetchedAt = LocalDateTime.of(2026, 9, 20, 10, 15, 42);
+                refreshed.setDetailsFetchedAt(cachedDetailsFetchedAt);
+
+                Activity stored = Activity.createFromGooglePlaces("louvre_place_id", "Louvre", "Museum", testDestination);
+                stored.setId(7L);
+                stored.setReviewsJson("[{\"rating\":5}]");
+                stored.setContentHash(ActivityContentHashUtils.compute(refreshed));
+                LocalDateTime storedUpdatedAt = stored.getUpdatedAt();
+
+                when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
+                when(activityRepository.findExistingForUpsert(eq(1L), anyCollection(), anyCollection()))
+                        .thenReturn(List.of(stored));
+                when(activityRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+                List<Activity> result = activityService.saveActivitiesFromPlaces(List.of(refreshed), 1L);
+
+                assertThat(result).containsExactly(stored);
+                assertThat(stored.getUpdatedAt()).isEqualTo(storedUpdatedAt);
+                verify(activityRepository).touchDetailsFetchedAt(eq(List.of(7L)), any(LocalDateTime.class),
+                        eq(LocalDateTime.of(2026, 9, 20, 10, 15)));
+                verify(activityRepository, never()).touchUpdatedAt(anyCollection(), any(LocalDateTime.class));
+                verify(activityRepository).saveAll(Set.of());
+            }
+
+            @Test
+            @DisplayName("Should match by name and collapse in-batch duplicates without extra queries")
+            void shouldMatchByNameAndCollapseDuplicatesInMemory() {
+                Activity existingByName = new Activity("Le Comptoir", "restaurant", testDestination);
+                Activity renamedPlace = Activity.createFromGooglePlaces("comptoir_id", "le comptoir", "restaurant", testDestination);
+                Activity first = Activity.createFromGooglePlaces("bistro_id", "Bistro", "restaurant", testDestination);
+                Activity sameNameDifferentPlace = Activity.createFromGooglePlaces("bistro_id_2", "BISTRO", "restaurant", testDestination);
+                Activity repeatedPlace = Activity.createFromGooglePlaces("bistro_id", "Bistro", "restaurant", testDestination);
+
+                when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
+                when(activityRepository.findExistingForUpsert(eq(1L), anyCollection(), anyCollection()))
+                        .thenReturn(List.of(existingByName));
+                when(activityRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+                List<Activity> result = activityService.saveActivitiesFromPlaces(
+                        Arrays.asList(renamedPlace, first, sameNameDifferentPlace, repeatedPlace), 1L);
+
+                assertThat(result).containsExactly(existingByName, first);
+                verify(activityRepository).findExistingForUpsert(1L,
+                        Set.of("comptoir_id", "bistro_id", "bistro_id_2"), Set.of("le comptoir", "bistro"));
+                verify(activityRepository, never()).findByPlaceId(anyString());
+                verify(activityRepository, never()).save(any(Activity.class));
+            }
+
+            @Test
+            @DisplayName("Should upsert on place_id natively when the database supports it")
+            void shouldUpsertOnPlaceIdConflictWhenSupported() {
+                Activity known = Activity.createFromGooglePlaces("known_id", "Louvre", "Museum", testDestination);
+                Activity renamed = Activity.createFromGooglePlaces("new_id_for_old_row", "Le Comptoir", "restaurant", testDestination);
+                Activity brandNew = Activity.createFromGooglePlaces("brand_new_id", "Bistro", "restaurant", testDestination);
+                Activity duplicate = Activity.createFromGooglePlaces("known_id", "Louvre again", "Museum", testDestination);
+                Activity storedByName = new Activity("le comptoir", "restaurant", testDestination);
+                Activity reloadedKnown = Activity.createFromGooglePlaces("known_id", "Louvre", "Museum", testDestination);
+                Activity reloadedNew = Activity.createFromGooglePlaces("brand_new_id", "Bistro", "restaurant", testDestination);
+
+                when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
+                when(activityUpsertRepository.isSupported()).thenReturn(true);
+                when(activityRepository.findExistingPlaceIds(Set.of("known_id", "new_id_for_old_row", "brand_new_id")))
+                        .thenReturn(List.of("known_id"));
+                when(activityRepository.findExistingForUpsert(1L, Set.of(), Set.of("le comptoir", "bistro")))
+                        .thenReturn(List.of(storedByName));
+                when(activityRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+                when(activityRepository.findByPlaceIdIn(Set.of("known_id", "brand_new_id")))
+                        .thenReturn(List.of(reloadedKnown, reloadedNew));
+
+                List<Activity> result = activityService.saveActivitiesFromPlaces(
+                        Arrays.asList(known, renamed, brandNew, duplicate), 1L);
+
+                verify(activityUpsertRepository).upsertAll(List.of(known, brandNew));
+                verify(activityRepository).saveAll(List.of(storedByName));
+                verify(activityRepository, never()).findExistingForUpsert(eq(1L), eq(Set.of("known_id", "new_id_for_old_row", "brand_new_id")), anyCollection());
+                assertThat(result).containsExactly(storedByName, reloadedKnown, reloadedNew);
+            }
+
+            @Test
+            @DisplayName("Should keep stored details when a refresh carries only text-search data")
+            void shouldKeepStoredDetailsOnTextSearchOnlyUpdate() {
+                Activity existingActivity = new Activity("Louvre", "Museum", testDestination);
+                existingActivity.setPlaceId("louvre_place_id");
+                existingActivity.setDescription("World's largest art museum");
+                existingActivity.setReviewsJson("[{\"rating\":5}]");
+                existingActivity.setDetailsFetchedAt(LocalDateTime.now().minusDays(2));
+
+                Activity textSearchData = new Activity("Louvre", "Museum", testDestination);
+                textSearchData.setPlaceId("louvre_place_id");
+                textSearchData.setDescription(GooglePlacesService.NO_DESCRIPTION);
+                textSearchData.setRating(new BigDecimal("4.8"));
+
+                when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
+                when(activityRepository.findExistingForUpsert(eq(1L), anyCollection(), anyCollection()))
+                        .thenReturn(List.of(existingActivity));
+
+                activityService.saveActivitiesFromPlaces(Arrays.asList(textSearchData), 1L);
+
+                assertThat(existingActivity.getDescription()).isEqualTo("World's largest art museum");
+                assertThat(existingActivity.getReviewsJson()).isEqualTo("[{\"rating\":5}]");
+                assertThat(existingActivity.getDetailsFetchedAt()).isNotNull();
+                assertThat(existingActivity.getRating()).isEqualTo(new BigDecimal("4.8"));
+            }
+
+            @Test
+            @DisplayName("Should fetch Place Details only for new or stale activities")
+            void shouldEnrichOnlyNewOrStaleActivities() {
+                Activity fresh = Activity.createFromGooglePlaces("fresh_id", "Fresh", "Museum", testDestination);
+                Activity stale = Activity.createFromGooglePlaces("stale_id", "Stale", "Museum", testDestination);
+                Activity brandNew = Activity.createFromGooglePlaces("new_id", "New", "Museum", testDestination);
+                Activity storedFresh = Activity.createFromGooglePlaces("fresh_id", "Fresh", "Museum", testDestination);
+                Activity storedStale = Activity.createFromGooglePlaces("stale_id", "Stale", "Museum", testDestination);
+
+                when(catalogStateService.getOrInitialize(1L)).thenReturn(catalogState(0, null));
+                when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
+                when(googlePlacesService.searchAllQueries(any(), any(), anyBoolean())).thenReturn(Arrays.asList(fresh, stale, brandNew));
+                when(activityRepository.findByPlaceIdIn(any())).thenReturn(Arrays.asList(storedFresh, storedStale));
+                when(placesEnrichmentService.hasFreshDetails(storedFresh)).thenReturn(true);
+                when(placesEnrichmentService.hasFreshDetails(storedStale)).thenReturn(false);
+                when(snapshotStore.get(1L)).thenReturn(ActivityCatalogSnapshot.build(List.of()));
+
+                activityService.getAllActivitiesByDestination(1L);
+
+                verify(placesEnrichmentService).enrichWithPlaceDetails(testDestination, Arrays.asList(stale, brandNew), false);
+                verify(placesEnrichmentService).carryForwardDetails(storedFresh, fresh);
+                verify(placesEnrichmentService, never()).carryForwardDetails(eq(storedStale), any());
+                verify(catalogStateService).recordRefreshSucceeded(1L);
+            }
+
+            @Test
+            @DisplayName("Should bypass the response cache and details freshness on a forced refresh")
+            void shouldBypassCachesOnForcedRefresh() {
+                Activity fresh = Activity.createFromGooglePlaces("fresh_id", "Fresh", "Museum", testDestination);
+
+                when(destinationRepository.findById(1L)).thenReturn(Optional.of(testDestination));
+                when(googlePlacesService.searchAllQueries(any(), any(), eq(true))).thenReturn(List.of(fresh));
+
+                activityService.forceRefreshActivities(1L);
+
+                verify(placesEnrichmentService).enrichWithPlaceDetails(testDestination, List.of(fresh), true);
+                verify(placesEnrichmentService, never()).hasFreshDetails(any());
             }
 
             @Test
@@ -331,14 +836,20 @@ class ActivityServiceTest {
                 placesData.setRating(new BigDecimal("4.5"));
                 placesData.setEstimatedCost(75.0);
 
-                when(activityRepository.save(any(Activity.class))).thenReturn(testActivity);
+                Activity stored = new Activity("Eiffel Tower", "tourist_attraction", testDestination);
+                stored.setId(1L);
+                when(activityRepository.findById(1L)).thenReturn(Optional.of(stored));
+                when(activityRepository.save(stored)).thenReturn(stored);
 
                 Activity result = activityService.enhanceActivityWithPlacesData(testActivity, placesData);
 
-                assertThat(testActivity.getPhotoUrl()).isEqualTo("https://example.com/photo.jpg");
-                assertThat(testActivity.getRating()).isEqualTo(new BigDecimal("4.5"));
-                assertThat(testActivity.getEstimatedCost()).isEqualTo(75.0);
-                verify(activityRepository).save(testActivity);
+                assertThat(result).isSameAs(stored);
+                assertThat(stored.getPhotoUrl()).isEqualTo("https://example.com/photo.jpg");
+                assertThat(stored.getRating()).isEqualTo(new BigDecimal("4.5"));
+                assertThat(stored.getEstimatedCost()).isEqualTo(75.0);
+                // The caller's instance may be the cached one and is left as it was
+                assertThat(testActivity.getPhotoUrl()).isNull();
+                assertThat(testActivity.getRating()).isNull();
             }
 
             @Test
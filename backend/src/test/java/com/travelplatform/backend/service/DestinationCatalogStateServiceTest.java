@@ -0,0 +1,159 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.entity.DestinationCatalogState;
+import com.travelplatform.backend.entity.DestinationCatalogState.RefreshStatus;
+import com.travelplatform.backend.repository.ActivityRepository;
+import com.travelplatform.backend.repository.DestinationCatalogStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Destination Catalog State Service Tests")
+class DestinationCatalogStateServiceTest {
+
+    @Mock
+    private DestinationCatalogStateRepository stateRepository;
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    private DestinationCatalogStateService catalogStateService;
+
+    @BeforeEach
+    void setUp() {
+        catalogStateService = new DestinationCatalogStateService(stateRepository, activityRepository,
+                Duration.ofMinutes(5), Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Should return stored state with a single lookup")
+    void shouldReturnStoredState() {
+        DestinationCatalogState stored = new DestinationCatalogState(1L);
+        stored.setActivityCount(80);
+        when(stateRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        assertThat(catalogStateService.getOrInitialize(1L)).isSameAs(stored);
+
+        verifyNoInteractions(activityRepository);
+        verify(stateRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should initialize state from existing activities without loading them")
+    void shouldInitializeFromExistingActivities() {
+        LocalDateTime lastUpdate = LocalDateTime.now().minusDays(3);
+        when(stateRepository.findById(1L)).thenReturn(Optional.empty());
+        when(activityRepository.countByDestinationId(1L)).thenReturn(80L);
+        when(activityRepository.countByDestinationIdAndIsCustomTrue(1L)).thenReturn(2L);
+        when(activityRepository.findLatestUpdatedAt(1L)).thenReturn(lastUpdate);
+        when(stateRepository.save(any(DestinationCatalogState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DestinationCatalogState state = catalogStateService.getOrInitialize(1L);
+
+        assertThat(state.getActivityCount()).isEqualTo(80);
+        assertThat(state.getCustomActivityCount()).isEqualTo(2);
+        assertThat(state.getLastRefreshedAt()).isEqualTo(lastUpdate);
+        assertThat(state.getRefreshStatus()).isEqualTo(RefreshStatus.SUCCEEDED);
+        verify(activityRepository, never()).findByDestinationId(any());
+    }
+
+    @Test
+    @DisplayName("Should use the concurrently created state when initialization races")
+    void shouldReloadStateWhenInitializationRaces() {
+        DestinationCatalogState winner = new DestinationCatalogState(1L);
+        when(stateRepository.findById(1L)).thenReturn(Optional.empty(), Optional.of(winner));
+        when(stateRepository.save(any(DestinationCatalogState.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThat(catalogStateService.getOrInitialize(1L)).isSameAs(winner);
+    }
+
+    @Test
+    @DisplayName("Should recount and bump the version after a successful refresh")
+    void shouldRecordSuccessfulRefresh() {
+        DestinationCatalogState stored = new DestinationCatalogState(1L);
+        stored.setCatalogVersion(4);
+        stored.setRefreshStatus(RefreshStatus.REFRESHING);
+        when(stateRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(activityRepository.countByDestinationId(1L)).thenReturn(120L);
+        when(activityRepository.countByDestinationIdAndIsCustomTrue(1L)).thenReturn(0L);
+
+        catalogStateService.recordRefreshSucceeded(1L);
+
+        ArgumentCaptor<DestinationCatalogState> saved = ArgumentCaptor.forClass(DestinationCatalogState.class);
+        verify(stateRepository).save(saved.capture());
+        assertThat(saved.getValue().getActivityCount()).isEqualTo(120);
+        assertThat(saved.getValue().getCatalogVersion()).isEqualTo(5);
+        assertThat(saved.getValue().getRefreshStatus()).isEqualTo(RefreshStatus.SUCCEEDED);
+        assertThat(saved.getValue().getLastRefreshedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the last refresh time when a refresh fails")
+    void shouldRecordFailedRefresh() {
+        LocalDateTime lastRefresh = LocalDateTime.now().minusDays(40);
+        DestinationCatalogState stored = new DestinationCatalogState(1L);
+        stored.setLastRefreshedAt(lastRefresh);
+        when(stateRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        catalogStateService.recordRefreshFailed(1L);
+
+        assertThat(stored.getRefreshStatus()).isEqualTo(RefreshStatus.FAILED);
+        assertThat(stored.getLastRefreshedAt()).isEqualTo(lastRefresh);
+        assertThat(stored.getLastFailedAt()).isNotNull();
+        assertThat(stored.getConsecutiveFailures()).isEqualTo(1);
+        verify(stateRepository).save(stored);
+    }
+
+    @Test
+    @DisplayName("Should back off after a failure, doubling per consecutive failure up to the maximum")
+    void shouldBackOffAfterFailures() {
+        DestinationCatalogState state = new DestinationCatalogState(1L);
+        state.setRefreshStatus(RefreshStatus.FAILED);
+        state.setConsecutiveFailures(1);
+        state.setLastFailedAt(LocalDateTime.now().minusMinutes(6));
+        assertThat(catalogStateService.isBackingOff(state)).isFalse();
+
+        state.setConsecutiveFailures(2); // 10 minutes
+        assertThat(catalogStateService.isBackingOff(state)).isTrue();
+
+        state.setConsecutiveFailures(30); // Capped at the one hour maximum
+        state.setLastFailedAt(LocalDateTime.now().minusMinutes(61));
+        assertThat(catalogStateService.isBackingOff(state)).isFalse();
+
+        state.setRefreshStatus(RefreshStatus.SUCCEEDED);
+        state.setLastFailedAt(LocalDateTime.now());
+        assertThat(catalogStateService.isBackingOff(state)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should recount activities after an edit outside a refresh")
+    void shouldRecountAfterActivitiesChanged() {
+        DestinationCatalogState stored = new DestinationCatalogState(1L);
+        stored.setActivityCount(3);
+        stored.setCatalogVersion(2);
+        when(stateRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(activityRepository.countByDestinationId(1L)).thenReturn(2L);
+        when(activityRepository.countByDestinationIdAndIsCustomTrue(1L)).thenReturn(0L);
+
+        catalogStateService.recordActivitiesChanged(1L);
+
+        assertThat(stored.getActivityCount()).isEqualTo(2);
+        assertThat(stored.getCatalogVersion()).isEqualTo(2);
+        verify(stateRepository).save(stored);
+    }
+}
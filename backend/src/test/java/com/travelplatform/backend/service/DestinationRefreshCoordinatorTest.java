@@ -0,0 +1,147 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.entity.Activity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Destination Refresh Coordinator Tests")
+class DestinationRefreshCoordinatorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DestinationRefreshCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coordinator = new DestinationRefreshCoordinator(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should run one refresh and share its result with concurrent callers")
+    void shouldCoalesceConcurrentRefreshes() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        List<Activity> refreshed = List.of(new Activity());
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        Future<List<Activity>> leader = executor.submit(() -> coordinator.refresh(1L, () -> {
+            loaderCalls.incrementAndGet();
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return refreshed;
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<List<Activity>>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(executor.submit(() -> coordinator.refresh(1L, () -> {
+                loaderCalls.incrementAndGet();
+                return List.of();
+            })));
+        }
+        // Wait until all followers have joined the flight before letting it finish
+        while (meterRegistry.get("activities.refresh.coalesced").counter().count() < 4) {
+            Thread.sleep(5);
+        }
+        assertThat(coordinator.isRefreshing(1L)).isTrue();
+        releaseLoader.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(refreshed);
+        for (Future<List<Activity>> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(refreshed);
+        }
+        assertThat(loaderCalls.get()).isEqualTo(1);
+        assertThat(coordinator.isRefreshing(1L)).isFalse();
+        assertThat(meterRegistry.get("activities.refresh.flights").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("activities.refresh.callers_absorbed").summary().totalAmount()).isEqualTo(4);
+
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should allow a new refresh after a failed one")
+    void shouldReleaseFlightAfterFailure() {
+        assertThatThrownBy(() -> coordinator.refresh(1L, () -> {
+            throw new IllegalStateException("Places down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        List<Activity> result = coordinator.refresh(1L, List::of);
+
+        assertThat(result).isEmpty();
+        assertThat(meterRegistry.get("activities.refresh.flights").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should hand the leader's exception to joiners and release the flight on an Error")
+    void shouldFailJoinersWithLeaderError() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<List<Activity>> leader = executor.submit(() -> coordinator.refresh(1L, () -> {
+            loaderStarted.countDown();
+            await(releaseLoader);
+            throw new OutOfMemoryError("Places response too large");
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<List<Activity>> joiner = executor.submit(() -> coordinator.refresh(1L, List::of));
+        while (meterRegistry.get("activities.refresh.coalesced").counter().count() < 1) {
+            Thread.sleep(5);
+        }
+        releaseLoader.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThatThrownBy(() -> joiner.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThat(coordinator.isRefreshing(1L)).isFalse();
+
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should rethrow the leader's exception to joiners unwrapped")
+    void shouldRethrowLeaderExceptionToJoiners() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Places down");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        executor.submit(() -> coordinator.refresh(1L, () -> {
+            loaderStarted.countDown();
+            await(releaseLoader);
+            throw failure;
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<List<Activity>> joiner = executor.submit(() -> coordinator.refresh(1L, List::of));
+        while (meterRegistry.get("activities.refresh.coalesced").counter().count() < 1) {
+            Thread.sleep(5);
+        }
+        releaseLoader.countDown();
+
+        assertThatThrownBy(() -> joiner.get(5, TimeUnit.SECONDS)).hasCause(failure);
+
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
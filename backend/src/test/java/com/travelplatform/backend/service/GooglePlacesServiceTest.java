@@ -17,13 +17,22 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +45,12 @@ class GooglePlacesServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private PlacesRateLimiter rateLimiter;
+
+    @Mock
+    private PlacesResponseCache responseCache;
+
     @InjectMocks
     private GooglePlacesService googlePlacesService;
 
@@ -57,6 +72,7 @@ class GooglePlacesServiceTest {
         ReflectionTestUtils.setField(googlePlacesService, "baseUrl", "http://localhost:8080");
         ReflectionTestUtils.setField(googlePlacesService, "objectMapper", objectMapper);
         ReflectionTestUtils.setField(googlePlacesService, "destinationRepository", destinationRepository);
+        ReflectionTestUtils.setField(googlePlacesService, "placesExecutor", (Executor) Runnable::run);
     }
 
     @Nested
@@ -104,6 +120,34 @@ class GooglePlacesServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Concurrent Search")
+    class ConcurrentSearch {
+
+        @Test
+        @DisplayName("Should merge concurrent query results and deduplicate by place ID")
+        void shouldMergeConcurrentResultsAndDeduplicate() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            ReflectionTestUtils.setField(googlePlacesService, "placesExecutor", executor);
+
+            String towerResponse = createMockGooglePlacesResponse();
+            String louvreResponse = towerResponse
+                    .replace("ChIJLU7jZClu5kcR4PcOOO6p3I0", "louvre-place-id")
+                    .replace("Eiffel Tower", "Louvre Museum");
+            when(restTemplate.getForObject(contains("museums"), eq(String.class))).thenReturn(louvreResponse);
+            when(restTemplate.getForObject(contains("attractions"), eq(String.class))).thenReturn(towerResponse);
+            when(restTemplate.getForObject(contains("landmarks"), eq(String.class))).thenReturn(towerResponse);
+
+            List<Activity> result = googlePlacesService.searchAllQueries(
+                    List.of("attractions in Paris", "museums in Paris", "landmarks in Paris"), testDestination);
+
+            assertThat(result).extracting(Activity::getName)
+                    .containsExactlyInAnyOrder("Eiffel Tower", "Louvre Museum");
+            verify(rateLimiter, times(3)).acquire();
+            executor.shutdown();
+        }
+    }
+
     @Nested
     @DisplayName("Place Details")
     class PlaceDetails {
@@ -122,6 +166,68 @@ class GooglePlacesServiceTest {
             verify(restTemplate).getForObject(anyString(), eq(String.class));
         }
 
+        @Test
+        @DisplayName("Should key cached details by place, language and field mask")
+        void shouldKeyCachedDetailsByLanguageAndFields() {
+            String mockResponse = createMockPlaceDetailsResponse();
+            when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(mockResponse);
+
+            googlePlacesService.getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0");
+
+            verify(restTemplate).getForObject(contains("language=en"), eq(String.class));
+            verify(responseCache).put(eq(PlacesResponseCache.Endpoint.DETAILS),
+                    startsWith("ChIJLU7jZClu5kcR4PcOOO6p3I0|en|name,formatted_address,"), eq(mockResponse));
+        }
+
+        @Test
+        @DisplayName("Should stream every detail field into the activity")
+        void shouldStreamAllDetailFields() {
+            when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(createMockPlaceDetailsResponse());
+
+            Activity result = googlePlacesService.getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0");
+
+            assertThat(result.getPlaceId()).isEqualTo("ChIJLU7jZClu5kcR4PcOOO6p3I0");
+            assertThat(result.getDescription()).isEqualTo("Iconic iron lattice tower built for the 1889 World's Fair.");
+            assertThat(result.getUserRatingsTotal()).isEqualTo(123456);
+            assertThat(result.getPriceLevel()).isEqualTo(2);
+            assertThat(result.getEstimatedCost()).isEqualTo(40.0);
+            assertThat(result.getLatitude()).isEqualTo(BigDecimal.valueOf(48.8584));
+            assertThat(result.getLongitude()).isEqualTo(BigDecimal.valueOf(2.2945));
+            assertThat(result.getPhotoUrl()).isEqualTo("http://localhost:8080/api/activities/photo/test-photo-ref-123");
+            assertThat(result.getOpeningHours())
+                    .isEqualTo("[\"Monday: 9:30 AM – 11:45 PM\",\"Tuesday: 9:30 AM – 11:45 PM\"]");
+            assertThat(result.getReviewsJson())
+                    .isEqualTo("[{\"author_name\":\"Tourist\",\"rating\":5,\"text\":\"Amazing views!\"}]");
+            assertThat(result.getWebsite()).isEqualTo("https://www.toureiffel.paris");
+            assertThat(result.getPhone()).isEqualTo("+33 8 92 70 12 39");
+        }
+
+        @Test
+        @DisplayName("Should stamp cached details with the time Google returned them")
+        void shouldStampCachedDetailsWithStoredTime() {
+            Instant storedAt = Instant.parse("2026-09-20T08:00:00Z");
+            when(responseCache.getEntry(eq(PlacesResponseCache.Endpoint.DETAILS), startsWith("ChIJLU7jZClu5kcR4PcOOO6p3I0|en|name,")))
+                    .thenReturn(Optional.of(new PlacesResponseCache.CachedResponse(createMockPlaceDetailsResponse(), storedAt)));
+
+            Activity result = googlePlacesService.getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0");
+
+            assertThat(result.getDetailsFetchedAt()).isEqualTo(LocalDateTime.ofInstant(storedAt, ZoneId.systemDefault()));
+            verifyNoInteractions(restTemplate);
+        }
+
+        @Test
+        @DisplayName("Should fetch details from Google on explicit refreshes even when cached")
+        void shouldBypassCachedDetailsWhenForced() {
+            when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(createMockPlaceDetailsResponse());
+
+            Activity result = googlePlacesService.getPlaceDetails("ChIJLU7jZClu5kcR4PcOOO6p3I0", true);
+
+            assertThat(result.getName()).isEqualTo("Eiffel Tower");
+            verify(responseCache, never()).getEntry(any(), anyString());
+            verify(restTemplate).getForObject(anyString(), eq(String.class));
+            assertThat(result.getDetailsFetchedAt()).isNotNull();
+        }
+
         @Test
         @DisplayName("Should handle API errors and return null")
         void shouldHandleApiErrorsAndReturnNull() {
@@ -178,6 +284,78 @@ class GooglePlacesServiceTest {
             assertThat(result.get(0).getName()).isEqualTo("Eiffel Tower");
             verify(restTemplate).getForObject(anyString(), eq(String.class));
         }
+
+        @Test
+        @DisplayName("Should store successful responses in the response cache")
+        void shouldStoreSuccessfulResponsesInCache() {
+            String mockResponse = createMockGooglePlacesResponse();
+            when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(mockResponse);
+
+            googlePlacesService.performSingleSearch("  Attractions   in Paris ", testDestination);
+
+            verify(responseCache).put(PlacesResponseCache.Endpoint.TEXT_SEARCH,
+                    "attractions in paris|en|48.8566,2.3522", mockResponse);
+        }
+
+        @Test
+        @DisplayName("Should serve cached responses without calling Google")
+        void shouldServeCachedResponsesWithoutCallingGoogle() throws Exception {
+            when(responseCache.get(eq(PlacesResponseCache.Endpoint.TEXT_SEARCH), anyString()))
+                    .thenReturn(Optional.of(createMockGooglePlacesResponse()));
+
+            List<Activity> result = googlePlacesService.performSingleSearch("attractions in Paris", testDestination);
+
+            assertThat(result).hasSize(1);
+            verifyNoInteractions(restTemplate);
+            verify(rateLimiter, never()).acquire();
+            verify(responseCache, never()).put(any(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should bypass cached responses on forced refreshes and store the new one")
+        void shouldBypassCachedResponsesWhenForced() {
+            String mockResponse = createMockGooglePlacesResponse();
+            when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(mockResponse);
+
+            List<Activity> result = googlePlacesService.performSingleSearch("attractions in Paris", testDestination, true);
+
+            assertThat(result).hasSize(1);
+            verify(responseCache, never()).get(any(), anyString());
+            verify(responseCache).put(eq(PlacesResponseCache.Endpoint.TEXT_SEARCH), anyString(), eq(mockResponse));
+        }
+
+        @Test
+        @DisplayName("Should return empty results on a cache miss in replay mode")
+        void shouldReturnEmptyOnReplayMiss() {
+            when(responseCache.isReplay()).thenReturn(true);
+
+            List<Activity> result = googlePlacesService.performSingleSearch("attractions in Paris", testDestination);
+
+            assertThat(result).isEmpty();
+            verifyNoInteractions(restTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Response Parsing")
+    class ResponseParsing {
+
+        @Test
+        @DisplayName("Should skip a malformed place and keep the rest of the response")
+        void shouldSkipMalformedPlace() {
+            String response = """
+                    {"results": [
+                      {"name": "Louvre", "place_id": "place-louvre", "types": ["museum"]},
+                      {"name": "Broken", "place_id": "place-broken", "user_ratings_total": 99999999999999999999,
+                       "geometry": {"location": {"lat": 48.8, "lng": 2.3}}, "types": ["park"]},
+                      {"name": "Eiffel Tower", "place_id": "place-tower", "types": ["tourist_attraction"]}
+                    ], "status": "OK"}
+                    """;
+
+            List<Activity> result = googlePlacesService.parseActivitiesFromResponse(response);
+
+            assertThat(result).extracting(Activity::getPlaceId).containsExactly("place-louvre", "place-tower");
+        }
     }
 
     @Nested
@@ -0,0 +1,306 @@
+package com.travelplatform.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Photo Cache Service Tests")
+class PhotoCacheServiceTest {
+
+    private static final String PHOTO_URL = "https://maps.example.test/photo?ref=abc";
+
+    @Mock
+    private GooglePlacesService googlePlacesService;
+
+    @TempDir
+    Path directory;
+
+    private MockRestServiceServer server;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    @DisplayName("Should download a photo once and serve repeats from memory")
+    void shouldDownloadOnceAndServeFromMemory() throws Exception {
+        byte[] image = image(1024);
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(requestTo(PHOTO_URL)).andRespond(withSuccess(image, MediaType.IMAGE_JPEG));
+        PhotoCacheService cache = newCache(DataSize.ofMegabytes(1));
+
+        PhotoCacheService.CachedPhoto first = cache.getPhoto("abc", 400);
+        PhotoCacheService.CachedPhoto second = cache.getPhoto("abc", 400);
+
+        server.verify();
+        assertThat(first.isInMemory()).isTrue();
+        assertThat(read(second)).isEqualTo(image);
+        assertThat(cache.getMemoryBytes()).isEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("Should serve from the disk tier after a restart")
+    void shouldServeFromDiskAfterRestart() throws Exception {
+        byte[] image = image(2048);
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(requestTo(PHOTO_URL)).andRespond(withSuccess(image, MediaType.IMAGE_JPEG));
+        newCache(DataSize.ofMegabytes(1)).getPhoto("abc", 400);
+
+        PhotoCacheService restarted = newCache(DataSize.ofMegabytes(1));
+
+        assertThat(read(restarted.getPhoto("abc", 400))).isEqualTo(image);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Should stream photos too large for the memory tier from disk")
+    void shouldStreamLargePhotosFromDisk() throws Exception {
+        byte[] image = image(64 * 1024);
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(requestTo(PHOTO_URL)).andRespond(withSuccess(image, MediaType.IMAGE_JPEG));
+        PhotoCacheService cache = newCache(DataSize.ofKilobytes(256));
+
+        PhotoCacheService.CachedPhoto photo = cache.getPhoto("abc", 400);
+
+        assertThat(photo.isInMemory()).isFalse();
+        assertThat(photo.getLength()).isEqualTo(image.length);
+        assertThat(read(photo)).isEqualTo(image);
+        assertThat(cache.getMemoryBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should still stream a disk-backed photo the sweep deleted after the lookup")
+    void shouldStreamPhotoDeletedAfterLookup() throws Exception {
+        byte[] image = image(64 * 1024);
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(requestTo(PHOTO_URL)).andRespond(withSuccess(image, MediaType.IMAGE_JPEG));
+        PhotoCacheService cache = newCache(DataSize.ofKilobytes(256));
+
+        PhotoCacheService.CachedPhoto photo = cache.getPhoto("abc", 400);
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+
+        assertThat(read(photo)).isEqualTo(image);
+    }
+
+    @Test
+    @DisplayName("Should download again when the original was swept from disk")
+    void shouldRedownloadSweptOriginal() throws Exception {
+        byte[] image = image(1024);
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(ExpectedCount.twice(), requestTo(PHOTO_URL)).andRespond(withSuccess(image, MediaType.IMAGE_JPEG));
+        newCache(DataSize.ofMegabytes(1)).getPhoto("abc", 400);
+        Files.delete(directory.resolve(keyOf("abc") + ".jpg"));
+
+        PhotoCacheService restarted = newCache(DataSize.ofMegabytes(1));
+
+        assertThat(read(restarted.getPhoto("abc", 96))).isEqualTo(image);
+        assertThat(directory.resolve(keyOf("abc") + ".jpg")).exists();
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used photos past the memory budget")
+    void shouldEvictLeastRecentlyUsed() throws Exception {
+        PhotoCacheService cache = newCache(DataSize.ofKilobytes(16));
+        for (int i = 0; i < 20; i++) {
+            when(googlePlacesService.buildPhotoUrl("ref-" + i)).thenReturn(PHOTO_URL + i);
+            server.expect(requestTo(PHOTO_URL + i)).andRespond(withSuccess(image(1024), MediaType.IMAGE_JPEG));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            cache.getPhoto("ref-" + i, 400);
+        }
+
+        server.verify();
+        assertThat(cache.getMemoryBytes()).isEqualTo(16 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should not leave partial files behind when the download fails")
+    void shouldNotCacheFailedDownloads() throws Exception {
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(requestTo(PHOTO_URL)).andRespond(withStatus(HttpStatus.BAD_REQUEST));
+        PhotoCacheService cache = newCache(DataSize.ofMegabytes(1));
+
+        assertThatThrownBy(() -> cache.getPhoto("abc", 400)).isInstanceOf(RuntimeException.class);
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should derive a stable quoted ETag from the photo reference")
+    void shouldDeriveStableEtag() {
+        PhotoCacheService cache = newCache(DataSize.ofMegabytes(1));
+
+        assertThat(cache.etagFor("abc", 400)).isEqualTo(cache.etagFor("abc", 400)).startsWith("\"").endsWith("\"");
+        assertThat(cache.etagFor("abc", 400)).isNotEqualTo(cache.etagFor("abd", 400));
+    }
+
+    @Test
+    @DisplayName("Should generate smaller variants when the original is first downloaded")
+    void shouldGenerateVariantsOnFirstDownload() throws Exception {
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(requestTo(PHOTO_URL)).andRespond(withSuccess(jpeg(400, 300), MediaType.IMAGE_JPEG));
+        PhotoCacheService cache = newCache(DataSize.ofMegabytes(1));
+
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(read(cache.getPhoto("abc", 80))));
+        BufferedImage medium = ImageIO.read(new ByteArrayInputStream(read(cache.getPhoto("abc", 200))));
+        BufferedImage original = ImageIO.read(new ByteArrayInputStream(read(cache.getPhoto("abc", 1200))));
+
+        server.verify();
+        assertThat(thumbnail.getWidth()).isEqualTo(96);
+        assertThat(thumbnail.getHeight()).isEqualTo(72);
+        assertThat(medium.getWidth()).isEqualTo(200);
+        assertThat(original.getWidth()).isEqualTo(400);
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fall back to the original for every variant when the JPEG is corrupt")
+    void shouldReuseOriginalWhenJpegIsCorrupt() throws Exception {
+        byte[] valid = jpeg(400, 300);
+        byte[] corrupt = Arrays.copyOf(valid, 40);
+        when(googlePlacesService.buildPhotoUrl("abc")).thenReturn(PHOTO_URL);
+        server.expect(requestTo(PHOTO_URL)).andRespond(withSuccess(corrupt, MediaType.IMAGE_JPEG));
+        PhotoCacheService cache = newCache(DataSize.ofMegabytes(1));
+
+        byte[] thumbnail = read(cache.getPhoto("abc", 96));
+        byte[] restarted = read(newCache(DataSize.ofMegabytes(1)).getPhoto("abc", 200));
+
+        server.verify();
+        assertThat(thumbnail).isEqualTo(corrupt);
+        assertThat(restarted).isEqualTo(corrupt);
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete the least recently used photos once the directory is over budget")
+    void shouldEvictLeastRecentlyUsedFromDisk() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            when(googlePlacesService.buildPhotoUrl("ref-" + i)).thenReturn(PHOTO_URL + i);
+            server.expect(requestTo(PHOTO_URL + i)).andRespond(withSuccess(image(1024), MediaType.IMAGE_JPEG));
+        }
+        // Undecodable 1KB photos take 3KB each with their copied variants; none fit in memory
+        PhotoCacheService cache = newCache(DataSize.ofKilobytes(1), DataSize.ofKilobytes(10));
+        for (int i = 0; i < 3; i++) {
+            cache.getPhoto("ref-" + i, 400);
+        }
+        ageAllFiles(keyOf("ref-0"), keyOf("ref-1"), keyOf("ref-2"));
+
+        cache.getPhoto("ref-0", 96);
+        cache.getPhoto("ref-3", 400);
+
+        server.verify();
+        assertThat(directory.resolve(keyOf("ref-1") + ".jpg")).doesNotExist();
+        assertThat(directory.resolve(keyOf("ref-1") + "-96.jpg")).doesNotExist();
+        assertThat(directory.resolve(keyOf("ref-0") + ".jpg")).exists();
+        assertThat(directory.resolve(keyOf("ref-2") + ".jpg")).exists();
+        assertThat(cache.getDiskBytes()).isEqualTo(9 * 1024);
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(9);
+        }
+    }
+
+    @Test
+    @DisplayName("Should snap requested widths to the nearest larger variant")
+    void shouldSnapRequestedWidthToVariant() {
+        PhotoCacheService cache = newCache(DataSize.ofMegabytes(1));
+
+        assertThat(cache.resolveWidth(48)).isEqualTo(96);
+        assertThat(cache.resolveWidth(96)).isEqualTo(96);
+        assertThat(cache.resolveWidth(150)).isEqualTo(200);
+        assertThat(cache.resolveWidth(400)).isEqualTo(400);
+        assertThat(cache.resolveWidth(1600)).isEqualTo(400);
+        assertThat(cache.etagFor("abc", 48)).isEqualTo(cache.etagFor("abc", 96)).isNotEqualTo(cache.etagFor("abc", 400));
+    }
+
+    private PhotoCacheService newCache(DataSize memory) {
+        return newCache(memory, DataSize.ofMegabytes(64));
+    }
+
+    private PhotoCacheService newCache(DataSize memory, DataSize disk) {
+        return new PhotoCacheService(restTemplate, googlePlacesService, directory.toString(), memory, disk);
+    }
+
+    private void ageAllFiles(String... keysOldestFirst) throws IOException {
+        Instant now = Instant.now();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.setLastModifiedTime(file, FileTime.from(now.minus(Duration.ofHours(keysOldestFirst.length + 1))));
+            }
+        }
+        for (int i = 0; i < keysOldestFirst.length; i++) {
+            Files.setLastModifiedTime(directory.resolve(keysOldestFirst[i] + ".jpg"),
+                    FileTime.from(now.minus(Duration.ofHours(keysOldestFirst.length - i))));
+        }
+    }
+
+    private static String keyOf(String photoReference) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(photoReference.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] image(int size) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) 0x5A);
+        return bytes;
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] read(PhotoCacheService.CachedPhoto photo) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        photo.writeTo(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,159 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.entity.Activity;
+import com.travelplatform.backend.entity.Destination;
+import com.travelplatform.backend.util.ActivityContentHashUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Places Enrichment Service Tests")
+class PlacesEnrichmentServiceTest {
+
+    @Mock
+    private GooglePlacesService googlePlacesService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+    private PlacesEnrichmentService enrichmentService;
+    private Destination testDestination;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        enrichmentService = new PlacesEnrichmentService(googlePlacesService, executor, meterRegistry, 30);
+
+        testDestination = new Destination();
+        testDestination.setId(1L);
+        testDestination.setName("Paris");
+        testDestination.setCountry("France");
+    }
+
+    @Test
+    @DisplayName("Should enrich every activity with a place ID and record wall time")
+    void shouldEnrichActivitiesConcurrently() {
+        Activity tower = Activity.createFromGooglePlaces("place-1", "Eiffel Tower", "Landmark", testDestination);
+        Activity louvre = Activity.createFromGooglePlaces("place-2", "Louvre", "Museum", testDestination);
+        Activity custom = Activity.createCustomActivity("Picnic", "Park", testDestination);
+
+        Activity towerDetails = new Activity();
+        towerDetails.setDescription("Iconic iron tower");
+        towerDetails.setRating(new BigDecimal("4.7"));
+        towerDetails.setPriceLevel(2);
+
+        when(googlePlacesService.getPlaceDetails("place-1", false)).thenReturn(towerDetails);
+        when(googlePlacesService.getPlaceDetails("place-2", false)).thenThrow(new RuntimeException("API Error"));
+        when(googlePlacesService.mapPriceLevelToCost(2)).thenReturn(40.0);
+
+        int enriched = enrichmentService.enrichWithPlaceDetails(testDestination, Arrays.asList(tower, louvre, custom));
+
+        assertThat(enriched).isEqualTo(1);
+        assertThat(tower.getDescription()).isEqualTo("Iconic iron tower");
+        assertThat(tower.getRating()).isEqualTo(new BigDecimal("4.7"));
+        assertThat(tower.getEstimatedCost()).isEqualTo(40.0); // Base cost; the multiplier is applied on save
+        assertThat(tower.getDetailsFetchedAt()).isNotNull();
+        assertThat(louvre.getDescription()).isNull();
+        assertThat(louvre.getDetailsFetchedAt()).isNull();
+        verify(googlePlacesService, never()).getPlaceDetails(isNull(), anyBoolean());
+        assertThat(meterRegistry.get("places.enrichment.duration").timer().count())
+                .isEqualTo(1);
+
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep the fetch time of details served from the response cache")
+    void shouldKeepCachedDetailsFetchTime() {
+        Activity museum = Activity.createFromGooglePlaces("place-4", "Orsay", "Museum", testDestination);
+        Activity details = new Activity();
+        LocalDateTime fetchedAt = LocalDateTime.now().minusDays(29);
+        details.setDetailsFetchedAt(fetchedAt);
+        when(googlePlacesService.getPlaceDetails("place-4", false)).thenReturn(details);
+
+        enrichmentService.enrichWithPlaceDetails(testDestination, List.of(museum));
+
+        assertThat(museum.getDetailsFetchedAt()).isEqualTo(fetchedAt);
+
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep placeholder descriptions out of enriched activities")
+    void shouldIgnorePlaceholderDescription() {
+        Activity park = Activity.createFromGooglePlaces("place-3", "Jardin", "Park", testDestination);
+        park.setDescription("Lovely gardens");
+
+        Activity details = new Activity();
+        details.setDescription("No description available.");
+        when(googlePlacesService.getPlaceDetails("place-3", false)).thenReturn(details);
+
+        enrichmentService.enrichWithPlaceDetails(testDestination, List.of(park));
+
+        assertThat(park.getDescription()).isEqualTo("Lovely gardens");
+
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should treat details as fresh only within the TTL")
+    void shouldTreatDetailsAsFreshWithinTtl() {
+        Activity neverEnriched = new Activity();
+        Activity recent = new Activity();
+        recent.setDetailsFetchedAt(LocalDateTime.now().minusDays(3));
+        Activity old = new Activity();
+        old.setDetailsFetchedAt(LocalDateTime.now().minusDays(45));
+
+        assertThat(enrichmentService.hasFreshDetails(neverEnriched)).isFalse();
+        assertThat(enrichmentService.hasFreshDetails(recent)).isTrue();
+        assertThat(enrichmentService.hasFreshDetails(old)).isFalse();
+
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash a skipped place the same as an enriched one")
+    void shouldCarryForwardStoredDetails() {
+        Activity details = new Activity();
+        details.setDescription("Iconic iron tower");
+        details.setReviewsJson("[{\"rating\":5}]");
+        details.setRating(new BigDecimal("4.7"));
+        details.setPriceLevel(2);
+        details.setDetailsFetchedAt(LocalDateTime.now().minusDays(40));
+        when(googlePlacesService.getPlaceDetails("place-1", false)).thenReturn(details);
+        when(googlePlacesService.mapPriceLevelToCost(2)).thenReturn(40.0);
+        Activity enriched = Activity.createFromGooglePlaces("place-1", "Eiffel Tower", "Landmark", testDestination);
+        enrichmentService.enrichWithPlaceDetails(testDestination, List.of(enriched));
+
+        // What the stored row holds after that enrichment, then a later refresh skips its details
+        Activity stored = Activity.createFromGooglePlaces("place-1", "Eiffel Tower", "Landmark", testDestination);
+        stored.setDescription("Iconic iron tower");
+        stored.setReviewsJson("[{\"rating\":5}]");
+        stored.setRating(new BigDecimal("4.7"));
+        stored.setPriceLevel(2);
+        stored.setEstimatedCost(52.0); // City multiplier applied on save
+        stored.setDetailsFetchedAt(details.getDetailsFetchedAt());
+        Activity skipped = Activity.createFromGooglePlaces("place-1", "Eiffel Tower", "Landmark", testDestination);
+        enrichmentService.carryForwardDetails(stored, skipped);
+
+        assertThat(ActivityContentHashUtils.compute(skipped)).isEqualTo(ActivityContentHashUtils.compute(enriched));
+        assertThat(skipped.getEstimatedCost()).isEqualTo(40.0);
+        assertThat(skipped.getDetailsFetchedAt()).isEqualTo(details.getDetailsFetchedAt());
+
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,150 @@
+package com.travelplatform.backend.service;
+
+import com.travelplatform.backend.service.PlacesResponseCache.Endpoint;
+import com.travelplatform.backend.service.PlacesResponseCache.Mode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Places Response Cache Tests")
+class PlacesResponseCacheTest {
+
+    private static final Instant STORED_AT = Instant.parse("2025-01-01T00:00:00Z");
+    private static final String BODY = "{\"results\":[{\"place_id\":\"abc\",\"name\":\"Louvre\"}],\"status\":\"OK\"}";
+
+    @TempDir
+    Path directory;
+
+    private final List<PlacesResponseCache> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(PlacesResponseCache::close);
+    }
+
+    @Test
+    @DisplayName("Should return stored responses and miss unknown keys")
+    void shouldReturnStoredResponses() {
+        PlacesResponseCache cache = open(Mode.READ_WRITE, STORED_AT);
+
+        cache.put(Endpoint.TEXT_SEARCH, "museums in paris|en|48.8,2.3", BODY);
+
+        assertThat(cache.get(Endpoint.TEXT_SEARCH, "museums in paris|en|48.8,2.3")).contains(BODY);
+        assertThat(cache.get(Endpoint.TEXT_SEARCH, "parks in paris|en|48.8,2.3")).isEmpty();
+        assertThat(cache.get(Endpoint.DETAILS, "museums in paris|en|48.8,2.3")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from the segment file on reopen")
+    void shouldRebuildIndexOnReopen() {
+        PlacesResponseCache cache = open(Mode.READ_WRITE, STORED_AT);
+        cache.put(Endpoint.DETAILS, "place-1", "first");
+        cache.put(Endpoint.DETAILS, "place-1", "second");
+        cache.put(Endpoint.DETAILS, "place-2", BODY);
+        cache.close();
+
+        PlacesResponseCache reopened = open(Mode.READ_WRITE, STORED_AT);
+
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.get(Endpoint.DETAILS, "place-1")).contains("second");
+        assertThat(reopened.get(Endpoint.DETAILS, "place-2")).contains(BODY);
+    }
+
+    @Test
+    @DisplayName("Should compact the segment once overwritten records dominate it")
+    void shouldCompactWhenMostlyDead() throws Exception {
+        PlacesResponseCache cache = open(Mode.READ_WRITE, STORED_AT);
+        Random random = new Random(42);
+        String body = null;
+        for (int i = 0; i < 10; i++) {
+            // Random text barely compresses, so each record is roughly its body's size
+            body = random.ints(200_000, 'a', 'z' + 1)
+                    .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+            cache.put(Endpoint.DETAILS, "place-1", body);
+        }
+
+        assertThat(Files.size(directory.resolve("places-responses.seg"))).isLessThan(400_000);
+        assertThat(cache.get(Endpoint.DETAILS, "place-1")).contains(body);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply per-endpoint TTLs outside replay mode")
+    void shouldApplyPerEndpointTtl() {
+        PlacesResponseCache cache = open(Mode.READ_WRITE, STORED_AT);
+        cache.put(Endpoint.TEXT_SEARCH, "query", BODY);
+        cache.put(Endpoint.DETAILS, "place-1", BODY);
+        cache.close();
+
+        PlacesResponseCache tenDaysLater = open(Mode.READ_WRITE, STORED_AT.plus(Duration.ofDays(10)));
+
+        assertThat(tenDaysLater.get(Endpoint.TEXT_SEARCH, "query")).isEmpty();
+        assertThat(tenDaysLater.get(Endpoint.DETAILS, "place-1")).contains(BODY);
+        // Entries report when they were stored, not when they were read
+        assertThat(tenDaysLater.getEntry(Endpoint.DETAILS, "place-1"))
+                .contains(new PlacesResponseCache.CachedResponse(BODY, STORED_AT));
+    }
+
+    @Test
+    @DisplayName("Should serve expired entries and ignore writes in replay mode")
+    void shouldServeExpiredEntriesInReplayMode() {
+        PlacesResponseCache cache = open(Mode.READ_WRITE, STORED_AT);
+        cache.put(Endpoint.TEXT_SEARCH, "query", BODY);
+        cache.close();
+
+        PlacesResponseCache replay = open(Mode.REPLAY, STORED_AT.plus(Duration.ofDays(365)));
+        replay.put(Endpoint.TEXT_SEARCH, "other", BODY);
+
+        assertThat(replay.isReplay()).isTrue();
+        assertThat(replay.get(Endpoint.TEXT_SEARCH, "query")).contains(BODY);
+        assertThat(replay.get(Endpoint.TEXT_SEARCH, "other")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the end of the segment")
+    void shouldTruncateTornTail() throws Exception {
+        PlacesResponseCache cache = open(Mode.READ_WRITE, STORED_AT);
+        cache.put(Endpoint.DETAILS, "place-1", BODY);
+        cache.close();
+        Files.write(directory.resolve("places-responses.seg"), new byte[]{0x50, 0x4C, 0x52},
+                StandardOpenOption.APPEND);
+
+        PlacesResponseCache reopened = open(Mode.READ_WRITE, STORED_AT);
+        reopened.put(Endpoint.DETAILS, "place-2", "after crash");
+
+        assertThat(reopened.get(Endpoint.DETAILS, "place-1")).contains(BODY);
+        assertThat(reopened.get(Endpoint.DETAILS, "place-2")).contains("after crash");
+    }
+
+    @Test
+    @DisplayName("Should do nothing when turned off")
+    void shouldDoNothingWhenOff() {
+        PlacesResponseCache cache = open(Mode.OFF, STORED_AT);
+        cache.put(Endpoint.DETAILS, "place-1", BODY);
+
+        assertThat(cache.get(Endpoint.DETAILS, "place-1")).isEmpty();
+        assertThat(Files.exists(directory.resolve("places-responses.seg"))).isFalse();
+    }
+
+    private PlacesResponseCache open(Mode mode, Instant now) {
+        PlacesResponseCache cache = new PlacesResponseCache(mode, directory,
+                Duration.ofDays(7), Duration.ofDays(30), Clock.fixed(now, ZoneOffset.UTC));
+        cache.open();
+        opened.add(cache);
+        return cache;
+    }
+}
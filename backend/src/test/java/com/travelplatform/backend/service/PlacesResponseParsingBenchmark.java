@@ -0,0 +1,148 @@
+package com.travelplatform.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelplatform.backend.entity.Activity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the streaming Places decoder against a tree-based (readTree) decode of the
+ * same text-search payload. Excluded from the default build; run it with
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups=}.
+ */
+@Tag("benchmark")
+class PlacesResponseParsingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlacesResponseParsingBenchmark.class);
+
+    private static final int PLACES_PER_RESPONSE = 20;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Test
+    void compareStreamingAndTreeDecoding() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        GooglePlacesService service = new GooglePlacesService(null, objectMapper, null, null, null);
+        ReflectionTestUtils.setField(service, "baseUrl", "http://localhost:8080");
+
+        String response = buildResponse(PLACES_PER_RESPONSE);
+        logger.info("Payload: {} places, {} bytes", PLACES_PER_RESPONSE, response.length());
+        assertThat(service.parseActivitiesFromResponse(response)).hasSize(PLACES_PER_RESPONSE);
+        assertThat(decodeWithTree(objectMapper, response)).hasSize(PLACES_PER_RESPONSE);
+
+        run("tree (readTree)", () -> decodeWithTree(objectMapper, response));
+        run("streaming (JsonParser)", () -> service.parseActivitiesFromResponse(response));
+    }
+
+    private static void run(String label, Decoder decoder) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            consume(decoder.decode());
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            consume(decoder.decode());
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        logger.info(String.format("%-24s %,10.0f responses/s %,12d bytes allocated/response",
+                label, MEASURED_ITERATIONS / (elapsedNanos / 1e9), allocated / MEASURED_ITERATIONS));
+    }
+
+    private static int sink;
+
+    private static void consume(List<Activity> activities) {
+        sink += activities.size();
+    }
+
+    // Equivalent of the previous tree-based path, without its per-field INFO logging
+    private static List<Activity> decodeWithTree(ObjectMapper objectMapper, String response) {
+        List<Activity> activities = new ArrayList<>();
+        try {
+            JsonNode results = objectMapper.readTree(response).get("results");
+            for (JsonNode json : results) {
+                Activity activity = new Activity();
+                activity.setName(json.get("name").asText());
+                activity.setPlaceId(json.get("place_id").asText());
+                activity.setRating(BigDecimal.valueOf(json.get("rating").asDouble()));
+                activity.setUserRatingsTotal(json.get("user_ratings_total").asInt());
+                activity.setPriceLevel(json.get("price_level").asInt());
+                activity.setDescription(json.get("editorial_summary").get("overview").asText());
+                activity.setPhotoUrl(json.get("photos").get(0).get("photo_reference").asText());
+                JsonNode location = json.get("geometry").get("location");
+                activity.setLatitude(BigDecimal.valueOf(location.get("lat").asDouble()));
+                activity.setLongitude(BigDecimal.valueOf(location.get("lng").asDouble()));
+                activity.setAddress(json.get("formatted_address").asText());
+                activity.setOpeningHours(json.get("opening_hours").get("weekday_text").toString());
+                activity.setReviewsJson(json.get("reviews").toString());
+                List<String> types = new ArrayList<>();
+                json.get("types").forEach(type -> types.add(type.asText()));
+                activity.setCategory(types.get(0));
+                activities.add(activity);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return activities;
+    }
+
+    private static String buildResponse(int places) {
+        StringBuilder json = new StringBuilder("{\"html_attributions\":[],\"results\":[");
+        for (int i = 0; i < places; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("""
+                    {"place_id":"place-%d","name":"Attraction %d","rating":4.6,"user_ratings_total":%d,
+                     "price_level":2,"types":["museum","tourist_attraction","point_of_interest","establishment"],
+                     "business_status":"OPERATIONAL","formatted_address":"%d Rue de Rivoli, 75001 Paris, France",
+                     "editorial_summary":{"language":"en","overview":"A much-visited landmark with long queues."},
+                     "geometry":{"location":{"lat":48.86%d,"lng":2.33%d},
+                       "viewport":{"northeast":{"lat":48.87,"lng":2.34},"southwest":{"lat":48.85,"lng":2.32}}},
+                     "photos":[{"height":3024,"width":4032,"photo_reference":"photo-ref-%d",
+                       "html_attributions":["<a href=\\"https://maps.google.com\\">Visitor</a>"]}],
+                     "opening_hours":{"open_now":true,"weekday_text":["Monday: 9:00 AM – 6:00 PM","Tuesday: Closed",
+                       "Wednesday: 9:00 AM – 9:00 PM","Thursday: 9:00 AM – 6:00 PM","Friday: 9:00 AM – 9:00 PM",
+                       "Saturday: 9:00 AM – 6:00 PM","Sunday: 9:00 AM – 6:00 PM"]},
+                     "reviews":[%s]}
+                    """.formatted(i, i, 1000 + i, i, i, i, i, reviews()));
+        }
+        return json.append("],\"status\":\"OK\"}").toString();
+    }
+
+    private static String reviews() {
+        StringBuilder reviews = new StringBuilder();
+        for (int r = 0; r < 5; r++) {
+            if (r > 0) {
+                reviews.append(',');
+            }
+            reviews.append("{\"author_name\":\"Reviewer ").append(r)
+                    .append("\",\"rating\":5,\"relative_time_description\":\"a month ago\",")
+                    .append("\"text\":\"Worth the wait. The collection is enormous and the building itself is stunning.\",")
+                    .append("\"time\":1700000000}");
+        }
+        return reviews.toString();
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        List<Activity> decode();
+    }
+}
@@ -1,7 +1,9 @@
 'use client';
 
 import { useState } from 'react';
+import { useQuery } from '@tanstack/react-query';
 import { Activity } from '@/types';
+import { activitiesApi } from '@/lib/api';
 import { useThemeStore } from '@/store/theme';
 import Image from 'next/image';
 
@@ -34,11 +36,18 @@ interface Review {
 }
 
 export default function ActivityDetailsModal({
-  activity,
+  activity: summary,
   onClose,
   tripId,
 }: ActivityDetailsModalProps) {
   const { isDark } = useThemeStore();
+  // List cards carry no reviews or hours, so load the full activity and show the card until it arrives
+  const { data: details } = useQuery({
+    queryKey: ['activity', summary.id],
+    queryFn: () => activitiesApi.getActivity(summary.id),
+    enabled: !!summary.id,
+  });
+  const activity: ActivityDetailsModalProps['activity'] = details ?? summary;
   const [showScheduleForm, setShowScheduleForm] = useState(false);
   const [reviewFilter, setReviewFilter] = useState<
     'all' | '5' | '4' | '3' | '2' | '1'
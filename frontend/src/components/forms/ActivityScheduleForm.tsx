@@ -6,6 +6,7 @@ import { useMutation, useQueryClient } from '@tanstack/react-query';
 import { tripActivitiesApi } from '@/lib/api';
 import { useThemeStore } from '@/store/theme';
 import Image from 'next/image';
+import { photoUrlForWidth } from '@/lib/utils/photoUrl';
 
 interface ActivityScheduleFormProps {
   activity: Activity;
@@ -110,7 +111,7 @@ export default function ActivityScheduleForm({
           <div className="flex items-center space-x-3">
             {activity.photoUrl ? (
               <Image
-                src={activity.photoUrl}
+                src={photoUrlForWidth(activity.photoUrl, 96)}
                 alt={activity.name}
                 width={48}
                 height={48}
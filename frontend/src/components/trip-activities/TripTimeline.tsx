@@ -8,6 +8,7 @@ import { EditTripActivityModal } from '@/components/trip-activities/EditTripActi
 import { Trip } from '@/types';
 import { useThemeStore } from '@/store/theme';
 import Image from 'next/image';
+import { photoUrlForWidth } from '@/lib/utils/photoUrl';
 
 interface TripTimelineProps {
   tripId: number;
@@ -560,7 +561,7 @@ export default function TripTimeline({ tripId, trip }: TripTimelineProps) {
                         <div className="flex-shrink-0">
                           {tripActivity.activity.photoUrl ? (
                             <Image
-                              src={tripActivity.activity.photoUrl}
+                              src={photoUrlForWidth(tripActivity.activity.photoUrl, 96)}
                               alt={tripActivity.activity.name}
                               width={64}
                               height={64}
@@ -1046,7 +1047,7 @@ export default function TripTimeline({ tripId, trip }: TripTimelineProps) {
                           <div className="flex-shrink-0">
                             {tripActivity.activity.photoUrl ? (
                               <Image
-                                src={tripActivity.activity.photoUrl}
+                                src={photoUrlForWidth(tripActivity.activity.photoUrl, 96)}
                                 alt={tripActivity.activity.name}
                                 width={48}
                                 height={48}
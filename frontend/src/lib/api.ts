@@ -157,6 +157,27 @@ export interface ActivitiesResponse {
   };
 }
 
+export interface ActivitySearchResponse {
+  activities: Activity[];
+  hasMore: boolean;
+  currentPage: number;
+  pageSize: number;
+  query: string;
+}
+
+export interface CostHistogram {
+  pricedCount: number;
+  unpricedCount: number;
+  min: number | null;
+  max: number | null;
+  p10: number | null;
+  p25: number | null;
+  median: number | null;
+  p75: number | null;
+  p90: number | null;
+  buckets: { lowerBound: number; upperBound: number; count: number }[];
+}
+
 export const activitiesApi = {
   // Smart cached activities
   getActivitiesSmart: (destinationId: number) =>
@@ -171,6 +192,9 @@ export const activitiesApi = {
       {}
     ),
 
+  // Full activity (reviews, opening hours, contact info); list endpoints only return card fields
+  getActivity: (id: number) => apiClient.get<Activity>(`/activities/${id}`),
+
   // Get cache stats
   getCacheStats: (destinationId: number) =>
     apiClient.get<{
@@ -183,16 +207,40 @@ export const activitiesApi = {
   // Get all categories
   getCategories: () => apiClient.get<string[]>('/activities/categories'),
 
-  // Search activities
-  searchActivities: (destinationId: number, query: string) =>
-    apiClient.get<Activity[]>(
-      `/activities/destination/${destinationId}/search?query=${query}`
+  // Search activities (ranked, one page at a time)
+  searchActivities: (destinationId: number, query: string, page = 1) =>
+    apiClient.get<ActivitySearchResponse>(
+      `/activities/destination/${destinationId}/search?query=${encodeURIComponent(query)}&page=${page}`
+    ),
+
+  // Activities around a point across all destinations, nearest first
+  getNearbyActivities: (
+    lat: number,
+    lng: number,
+    radiusMeters = 1000,
+    category?: string
+  ) => {
+    const params = new URLSearchParams({
+      lat: lat.toString(),
+      lng: lng.toString(),
+      radiusMeters: radiusMeters.toString(),
+      ...(category && { category }),
+    });
+    return apiClient.get<{ activity: Activity; distanceMeters: number }[]>(
+      `/activities/nearby?${params}`
+    );
+  },
+
+  // Cost distribution for the price range slider (same dollar amounts as estimatedCost)
+  getCostHistogram: (destinationId: number) =>
+    apiClient.get<CostHistogram>(
+      `/activities/destination/${destinationId}/cost-histogram`
     ),
 
-  // Get top rated activities
-  getTopRatedActivities: (destinationId: number) =>
+  // Get top rated activities (server default limit is 10)
+  getTopRatedActivities: (destinationId: number, limit = 10, minReviews = 0) =>
     apiClient.get<Activity[]>(
-      `/activities/destination/${destinationId}/top-rated`
+      `/activities/destination/${destinationId}/top-rated?limit=${limit}&minReviews=${minReviews}`
     ),
 
   // Create custom activity
@@ -0,0 +1,7 @@
+// The backend photo proxy serves 96, 200 and 400px variants; ask for the smallest that fits
+export const photoUrlForWidth = (photoUrl: string, width: number): string => {
+  if (!photoUrl.includes('/api/activities/photo/')) {
+    return photoUrl;
+  }
+  return `${photoUrl}${photoUrl.includes('?') ? '&' : '?'}w=${width}`;
+};